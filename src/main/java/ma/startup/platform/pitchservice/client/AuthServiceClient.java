@@ -8,7 +8,9 @@ import org.springframework.web.bind.annotation.RequestHeader;
 @FeignClient(
         name = "auth-service",
         url = "${auth.service.url}",
-        fallback = AuthServiceFallback.class
+        fallback = AuthServiceFallback.class,
+        qualifiers = "authServiceFeignClient",
+        primary = false
 )
 public interface AuthServiceClient {
 
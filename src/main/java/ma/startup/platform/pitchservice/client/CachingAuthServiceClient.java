@@ -0,0 +1,52 @@
+package ma.startup.platform.pitchservice.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import ma.startup.platform.pitchservice.dto.UserDTO;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Cache en mémoire devant le client Feign Auth-Service.
+ * Les utilisateurs résolus sont indexés par l'empreinte du token, bornés en taille et expirés après un TTL.
+ * Un seul appel distant est effectué par token même si plusieurs requêtes arrivent en même temps.
+ */
+@Component
+@Primary
+@Slf4j
+public class CachingAuthServiceClient implements AuthServiceClient {
+
+    private final AuthServiceClient delegate;
+    private final Cache<String, UserDTO> users;
+
+    public CachingAuthServiceClient(
+            @Qualifier("authServiceFeignClient") AuthServiceClient delegate,
+            @Value("${identity.cache.ttl-seconds:60}") long ttlSeconds,
+            @Value("${identity.cache.max-size:10000}") long maxSize
+    ) {
+        this.delegate = delegate;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public UserDTO getCurrentUser(String token) {
+        return users.get(TokenKeys.hash(token), key -> {
+            log.debug("Cache utilisateur manqué, appel Auth-Service");
+            return delegate.getCurrentUser(token);
+        });
+    }
+
+    public CacheStats stats() {
+        return users.stats();
+    }
+}
@@ -0,0 +1,57 @@
+package ma.startup.platform.pitchservice.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import ma.startup.platform.pitchservice.dto.StartupDTO;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Cache en mémoire devant le client Feign Startup-Service.
+ * Seul getMyStartup (dépendant du token) est mis en cache ; getStartupById est délégué tel quel.
+ */
+@Component
+@Primary
+@Slf4j
+public class CachingStartupServiceClient implements StartupServiceClient {
+
+    private final StartupServiceClient delegate;
+    private final Cache<String, StartupDTO> startups;
+
+    public CachingStartupServiceClient(
+            @Qualifier("startupServiceFeignClient") StartupServiceClient delegate,
+            @Value("${identity.cache.ttl-seconds:60}") long ttlSeconds,
+            @Value("${identity.cache.max-size:10000}") long maxSize
+    ) {
+        this.delegate = delegate;
+        this.startups = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public StartupDTO getStartupById(UUID id) {
+        return delegate.getStartupById(id);
+    }
+
+    @Override
+    public StartupDTO getMyStartup(String token) {
+        return startups.get(TokenKeys.hash(token), key -> {
+            log.debug("Cache startup manqué, appel Startup-Service");
+            return delegate.getMyStartup(token);
+        });
+    }
+
+    public CacheStats stats() {
+        return startups.stats();
+    }
+}
@@ -11,7 +11,9 @@ import java.util.UUID;
 @FeignClient(
         name = "startup-service",
         url = "${startup.service.url}",
-        fallback = StartupServiceFallback.class
+        fallback = StartupServiceFallback.class,
+        qualifiers = "startupServiceFeignClient",
+        primary = false
 )
 public interface StartupServiceClient {
 
@@ -0,0 +1,26 @@
+package ma.startup.platform.pitchservice.client;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Dérive une clé de cache à partir du token Bearer.
+ * Le token brut n'est jamais conservé en mémoire : seule son empreinte SHA-256 sert de clé.
+ */
+final class TokenKeys {
+
+    private TokenKeys() {
+    }
+
+    static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
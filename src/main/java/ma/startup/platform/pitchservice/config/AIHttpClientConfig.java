@@ -0,0 +1,179 @@
+package ma.startup.platform.pitchservice.config;
+
+import org.apache.hc.client5.http.classic.ExecChain;
+import org.apache.hc.client5.http.classic.ExecChainHandler;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transport HTTP des fournisseurs d'IA.
+ *
+ * HTTP_1_1 (défaut) : pool Apache HttpClient 5 avec keep-alive, limites par route et statistiques du pool.
+ * HTTP_2 : client JDK multiplexé sur une seule connexion par hôte (pas de pool à dimensionner).
+ */
+@Configuration
+public class AIHttpClientConfig {
+
+    @Value("${ai.http.connect-timeout-ms:3000}")
+    private long connectTimeoutMs;
+
+    @Value("${ai.http.read-timeout-ms:30000}")
+    private long readTimeoutMs;
+
+    @Value("${ai.http.total-timeout-ms:60000}")
+    private long totalTimeoutMs;
+
+    @Bean(name = "aiConnectionManager", destroyMethod = "close")
+    @ConditionalOnProperty(name = "ai.http.protocol", havingValue = "HTTP_1_1", matchIfMissing = true)
+    public PoolingHttpClientConnectionManager aiConnectionManager(
+            @Value("${ai.http.max-total:50}") int maxTotal,
+            @Value("${ai.http.max-per-route:20}") int maxPerRoute,
+            @Value("${ai.http.keep-alive-seconds:60}") long keepAliveSeconds
+    ) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setTimeToLive(TimeValue.ofSeconds(keepAliveSeconds))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(5))
+                        .build())
+                .build();
+    }
+
+    /**
+     * Client du transport HTTP_1_1, fermé avec le contexte (il porte le thread d'éviction des connexions inactives).
+     * Le pool est partagé : il est fermé par son propre bean.
+     */
+    @Bean(name = "aiHttpClient", destroyMethod = "close")
+    @ConditionalOnProperty(name = "ai.http.protocol", havingValue = "HTTP_1_1", matchIfMissing = true)
+    public CloseableHttpClient aiHttpClient(
+            PoolingHttpClientConnectionManager aiConnectionManager,
+            @Value("${ai.http.pool-acquire-timeout-ms:2000}") long poolAcquireTimeoutMs,
+            @Value("${ai.http.keep-alive-seconds:60}") long keepAliveSeconds
+    ) {
+        return HttpClients.custom()
+                .setConnectionManager(aiConnectionManager)
+                .setConnectionManagerShared(true)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolAcquireTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .addExecInterceptorFirst("total-timeout", new TotalTimeoutHandler(Duration.ofMillis(totalTimeoutMs)))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(keepAliveSeconds))
+                .build();
+    }
+
+    @Bean(name = "aiRestTemplate")
+    public RestTemplate aiRestTemplate(
+            @Value("${ai.http.protocol:HTTP_1_1}") String protocol,
+            ObjectProvider<CloseableHttpClient> aiHttpClient
+    ) {
+        ClientHttpRequestFactory requestFactory = "HTTP_2".equalsIgnoreCase(protocol)
+                ? http2RequestFactory()
+                : new HttpComponentsClientHttpRequestFactory(aiHttpClient.getObject());
+        return new RestTemplate(requestFactory);
+    }
+
+    private ClientHttpRequestFactory http2RequestFactory() {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+
+        // Le client JDK applique ce délai à l'échange complet, corps de réponse compris
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(totalTimeoutMs));
+        return requestFactory;
+    }
+
+    /**
+     * Annule la requête si l'échange complet (connexion, envoi, lecture du corps) dépasse le délai total.
+     * Le minuteur est retiré dès que la réponse est fermée (ou que l'échange échoue) : aucune tâche ne
+     * reste planifiée pour une requête terminée.
+     */
+    static final class TotalTimeoutHandler implements ExecChainHandler {
+
+        static final ScheduledThreadPoolExecutor TIMER = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "ai-http-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        static {
+            // Une tâche annulée quitte la file immédiatement au lieu d'y rester jusqu'à son échéance
+            TIMER.setRemoveOnCancelPolicy(true);
+        }
+
+        private final Duration totalTimeout;
+
+        TotalTimeoutHandler(Duration totalTimeout) {
+            this.totalTimeout = totalTimeout;
+        }
+
+        @Override
+        public ClassicHttpResponse execute(ClassicHttpRequest request, ExecChain.Scope scope, ExecChain chain)
+                throws IOException, HttpException {
+            if (!(scope.originalRequest instanceof Cancellable cancellable)) {
+                return chain.proceed(request, scope);
+            }
+            ScheduledFuture<?> timeout = TIMER.schedule(cancellable::cancel,
+                    totalTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            ClassicHttpResponse response;
+            try {
+                response = chain.proceed(request, scope);
+            } catch (IOException | HttpException | RuntimeException e) {
+                timeout.cancel(false);
+                throw e;
+            }
+
+            HttpEntity entity = response.getEntity();
+            if (entity == null) {
+                timeout.cancel(false);
+                return response;
+            }
+            // Fermer la réponse ferme son entité : le délai total couvre la lecture du corps jusque-là
+            response.setEntity(new HttpEntityWrapper(entity) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        timeout.cancel(false);
+                    }
+                }
+            });
+            return response;
+        }
+    }
+}
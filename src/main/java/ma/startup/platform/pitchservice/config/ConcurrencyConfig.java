@@ -0,0 +1,127 @@
+package ma.startup.platform.pitchservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ConcurrencyConfig {
+
+    /**
+     * Pool borné pour les appels Feign parallèles (Auth-Service + Startup-Service).
+     * En cas de saturation, l'appel s'exécute sur le thread appelant plutôt que d'échouer.
+     */
+    @Bean(name = "identityExecutor")
+    public ThreadPoolTaskExecutor identityExecutor(
+            @Value("${identity.executor.core-size:16}") int coreSize,
+            @Value("${identity.executor.max-size:64}") int maxSize,
+            @Value("${identity.executor.queue-capacity:200}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("identity-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool dédié aux flux SSE de génération : libère le thread Tomcat pendant l'appel IA
+     */
+    @Bean(name = "streamingExecutor")
+    public ThreadPoolTaskExecutor streamingExecutor(
+            @Value("${ai.stream.executor.core-size:8}") int coreSize,
+            @Value("${ai.stream.executor.max-size:32}") int maxSize,
+            @Value("${ai.stream.executor.queue-capacity:100}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("ai-stream-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool borné des générations asynchrones : au-delà de la file, les soumissions sont refusées (503)
+     */
+    @Bean(name = "generationExecutor")
+    public ThreadPoolTaskExecutor generationExecutor(
+            @Value("${pitch.jobs.workers:8}") int workers,
+            @Value("${pitch.jobs.queue-capacity:100}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("pitch-job-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool des générations multi-variantes : une tâche par type de pitch demandé.
+     * Distinct de aiExecutor, sur lequel ces tâches attendent ; en cas de saturation,
+     * la variante s'exécute sur le thread appelant.
+     */
+    @Bean(name = "variantExecutor")
+    public ThreadPoolTaskExecutor variantExecutor(
+            @Value("${pitch.variants.executor.core-size:8}") int coreSize,
+            @Value("${pitch.variants.executor.max-size:24}") int maxSize,
+            @Value("${pitch.variants.executor.queue-capacity:50}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("pitch-variant-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool des appels IA amont partagés par le single-flight ; un appel peut y être annulé
+     * indépendamment des threads qui en attendent le résultat
+     */
+    @Bean(name = "aiExecutor")
+    public ThreadPoolTaskExecutor aiExecutor(
+            @Value("${ai.executor.core-size:16}") int coreSize,
+            @Value("${ai.executor.max-size:64}") int maxSize,
+            @Value("${ai.executor.queue-capacity:200}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("ai-call-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool des requêtes couvertes (hedging) : séparé de aiExecutor pour qu'une tentative
+     * n'attende jamais une place dans le pool qui l'exécute déjà
+     */
+    @Bean(name = "hedgeExecutor")
+    public ThreadPoolTaskExecutor hedgeExecutor(
+            @Value("${ai.resilience.hedge.pool-size:32}") int poolSize
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("ai-hedge-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
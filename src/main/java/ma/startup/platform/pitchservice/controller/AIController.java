@@ -3,14 +3,21 @@ package ma.startup.platform.pitchservice.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import ma.startup.platform.pitchservice.client.AuthServiceClient;
-import ma.startup.platform.pitchservice.client.StartupServiceClient;
 import ma.startup.platform.pitchservice.dto.*;
+import ma.startup.platform.pitchservice.exception.GenerationQueueFullException;
 import ma.startup.platform.pitchservice.model.PitchType;
 import ma.startup.platform.pitchservice.service.AIService;
+import ma.startup.platform.pitchservice.service.RequestContextResolver;
+import ma.startup.platform.pitchservice.service.StartupTokenUsageService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -25,23 +32,28 @@ import java.util.Map;
 public class AIController {
 
     private final AIService aiService;
-    private final AuthServiceClient authServiceClient;
-    private final StartupServiceClient startupServiceClient;
+    private final RequestContextResolver requestContextResolver;
+    private final StartupTokenUsageService tokenUsageService;
+    @Qualifier("streamingExecutor")
+    private final TaskExecutor streamingExecutor;
+
+    @Value("${ai.stream.timeout-ms:120000}")
+    private long streamTimeoutMs;
 
     /**
      * Générer un Elevator Pitch (30 secondes)
-     * POST /api/ai/generate-elevator
+     * POST /api/ai/generate-elevator?regenerate=false
      */
     @PostMapping("/generate-elevator")
     public ResponseEntity<Map<String, String>> generateElevatorPitch(
             @Valid @RequestBody PitchRequestDTO request,
-            @RequestHeader("Authorization") String authToken
+            @RequestHeader("Authorization") String authToken,
+            @RequestParam(defaultValue = "false") boolean regenerate
     ) {
         log.info("Génération d'un elevator pitch");
 
         // Vérifier l'utilisateur et récupérer la startup
-        UserDTO user = authServiceClient.getCurrentUser(authToken);
-        StartupDTO startup = startupServiceClient.getMyStartup(authToken);
+        StartupDTO startup = requestContextResolver.resolve(authToken).getStartup();
 
         // Générer le pitch
         String pitch = aiService.generatePitch(
@@ -50,7 +62,8 @@ public class AIController {
                 request.getCible(),
                 request.getAvantage(),
                 startup,
-                PitchType.ELEVATOR
+                PitchType.ELEVATOR,
+                regenerate
         );
 
         Map<String, String> response = new HashMap<>();
@@ -61,19 +74,68 @@ public class AIController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Générer un Elevator Pitch en streaming (Server-Sent Events)
+     * POST /api/ai/generate-elevator/stream
+     * Événements : "token" pour chaque fragment, "done" avec le pitch complet, "error" en cas d'échec
+     */
+    @PostMapping(value = "/generate-elevator/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter generateElevatorPitchStream(
+            @Valid @RequestBody PitchRequestDTO request,
+            @RequestHeader("Authorization") String authToken,
+            @RequestParam(defaultValue = "false") boolean regenerate
+    ) {
+        log.info("Génération d'un elevator pitch en streaming");
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+
+        try {
+            streamingExecutor.execute(() -> {
+                try {
+                    StartupDTO startup = requestContextResolver.resolve(authToken).getStartup();
+
+                    String pitch = aiService.streamPitch(
+                            request.getProbleme(),
+                            request.getSolution(),
+                            request.getCible(),
+                            request.getAvantage(),
+                            startup,
+                            PitchType.ELEVATOR,
+                            regenerate,
+                            token -> SseEvents.send(emitter, "token", token)
+                    );
+
+                    Map<String, String> response = new HashMap<>();
+                    response.put("type", "ELEVATOR");
+                    response.put("pitch", pitch);
+                    response.put("startupName", startup.getNom());
+
+                    SseEvents.send(emitter, "done", response);
+                    emitter.complete();
+                } catch (Exception e) {
+                    SseEvents.fail(emitter, e);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            log.warn("File de streaming pleine, génération refusée");
+            throw new GenerationQueueFullException("Trop de générations en cours, réessayez plus tard");
+        }
+
+        return emitter;
+    }
+
     /**
      * Générer une structure de Pitch Deck complète
-     * POST /api/ai/generate-deck
+     * POST /api/ai/generate-deck?regenerate=false
      */
     @PostMapping("/generate-deck")
     public ResponseEntity<Map<String, String>> generatePitchDeck(
             @Valid @RequestBody PitchRequestDTO request,
-            @RequestHeader("Authorization") String authToken
+            @RequestHeader("Authorization") String authToken,
+            @RequestParam(defaultValue = "false") boolean regenerate
     ) {
         log.info("Génération d'une structure pitch deck");
 
-        UserDTO user = authServiceClient.getCurrentUser(authToken);
-        StartupDTO startup = startupServiceClient.getMyStartup(authToken);
+        StartupDTO startup = requestContextResolver.resolve(authToken).getStartup();
 
         String pitchDeck = aiService.generatePitch(
                 request.getProbleme(),
@@ -81,7 +143,8 @@ public class AIController {
                 request.getCible(),
                 request.getAvantage(),
                 startup,
-                PitchType.DECK
+                PitchType.DECK,
+                regenerate
         );
 
         Map<String, String> response = new HashMap<>();
@@ -103,12 +166,14 @@ public class AIController {
     ) {
         log.info("Amélioration d'un pitch existant");
 
-        // Vérifier l'utilisateur
-        UserDTO user = authServiceClient.getCurrentUser(authToken);
+        // Vérifier l'utilisateur et récupérer la startup, à qui la consommation est imputée
+        StartupDTO startup = requestContextResolver.resolve(authToken).getStartup();
 
         String improvedPitch = aiService.improvePitch(
                 request.getPitch(),
-                request.getSuggestions()
+                request.getSuggestions(),
+                startup,
+                null
         );
 
         Map<String, String> response = new HashMap<>();
@@ -130,10 +195,10 @@ public class AIController {
     ) {
         log.info("Génération de suggestions pour un pitch");
 
-        // Vérifier l'utilisateur
-        UserDTO user = authServiceClient.getCurrentUser(authToken);
+        // Vérifier l'utilisateur et récupérer la startup, à qui la consommation est imputée
+        StartupDTO startup = requestContextResolver.resolve(authToken).getStartup();
 
-        String suggestions = aiService.generateSuggestions(request.getPitch());
+        String suggestions = aiService.generateSuggestions(request.getPitch(), startup);
 
         Map<String, String> response = new HashMap<>();
         response.put("pitch", request.getPitch());
@@ -142,6 +207,18 @@ public class AIController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Consommation de jetons IA de la startup (jour et mois en cours) et quotas applicables
+     * GET /api/ai/usage
+     */
+    @GetMapping("/usage")
+    public ResponseEntity<TokenUsageDTO> getUsage(
+            @RequestHeader("Authorization") String authToken
+    ) {
+        StartupDTO startup = requestContextResolver.resolve(authToken).getStartup();
+        return ResponseEntity.ok(tokenUsageService.getUsage(startup.getId()));
+    }
+
     /**
      * Test de connectivité avec l'API Hugging Face
      * GET /api/ai/test
@@ -153,8 +230,7 @@ public class AIController {
         log.info("Test de connectivité avec Hugging Face");
 
         try {
-            UserDTO user = authServiceClient.getCurrentUser(authToken);
-            StartupDTO startup = startupServiceClient.getMyStartup(authToken);
+            StartupDTO startup = requestContextResolver.resolve(authToken).getStartup();
 
             // Test simple
             String testPitch = aiService.generatePitch(
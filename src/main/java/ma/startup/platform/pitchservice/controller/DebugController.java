@@ -1,10 +1,23 @@
 package ma.startup.platform.pitchservice.controller;
 
 import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import ma.startup.platform.pitchservice.client.AuthServiceClient;
+import ma.startup.platform.pitchservice.client.CachingAuthServiceClient;
+import ma.startup.platform.pitchservice.client.CachingStartupServiceClient;
 import ma.startup.platform.pitchservice.client.StartupServiceClient;
 import ma.startup.platform.pitchservice.dto.StartupDTO;
 import ma.startup.platform.pitchservice.dto.UserDTO;
+import ma.startup.platform.pitchservice.service.AIConcurrencyLimiter;
+import ma.startup.platform.pitchservice.service.AIModelRouter;
+import ma.startup.platform.pitchservice.service.AIResilience;
+import ma.startup.platform.pitchservice.service.AIResponseCache;
+import ma.startup.platform.pitchservice.service.AISingleFlight;
+import ma.startup.platform.pitchservice.service.PitchJobService;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,8 +29,20 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class DebugController {
 
+    // Clients Feign directs, sans le cache d'identité : les endpoints test-* vérifient que les services distants répondent
+    @Qualifier("authServiceFeignClient")
     private final AuthServiceClient authServiceClient;
+    @Qualifier("startupServiceFeignClient")
     private final StartupServiceClient startupServiceClient;
+    private final CachingAuthServiceClient cachingAuthServiceClient;
+    private final CachingStartupServiceClient cachingStartupServiceClient;
+    private final AIResponseCache aiResponseCache;
+    private final AISingleFlight aiSingleFlight;
+    private final AIConcurrencyLimiter aiConcurrencyLimiter;
+    private final AIResilience aiResilience;
+    private final AIModelRouter aiModelRouter;
+    private final PitchJobService pitchJobService;
+    private final ObjectProvider<PoolingHttpClientConnectionManager> aiConnectionManager;
 
     @GetMapping("/test-auth")
     public ResponseEntity<Map<String, Object>> testAuth(
@@ -87,4 +112,83 @@ public class DebugController {
             return ResponseEntity.status(500).body(response);
         }
     }
+
+    @GetMapping("/identity-cache")
+    public ResponseEntity<Map<String, Object>> identityCacheStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("users", toMap(cachingAuthServiceClient.stats()));
+        response.put("startups", toMap(cachingStartupServiceClient.stats()));
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/ai-cache")
+    public ResponseEntity<Map<String, Object>> aiCacheStats() {
+        return ResponseEntity.ok(aiResponseCache.stats());
+    }
+
+    @GetMapping("/ai-single-flight")
+    public ResponseEntity<Map<String, Object>> aiSingleFlightStats() {
+        return ResponseEntity.ok(aiSingleFlight.stats());
+    }
+
+    @GetMapping("/ai-limiter")
+    public ResponseEntity<Map<String, Object>> aiLimiterStats() {
+        return ResponseEntity.ok(aiConcurrencyLimiter.stats());
+    }
+
+    @GetMapping("/ai-resilience")
+    public ResponseEntity<Map<String, Object>> aiResilienceStats() {
+        return ResponseEntity.ok(aiResilience.stats());
+    }
+
+    @GetMapping("/ai-routing")
+    public ResponseEntity<Map<String, Object>> aiRoutingStats() {
+        return ResponseEntity.ok(aiModelRouter.stats());
+    }
+
+    @GetMapping("/pitch-jobs")
+    public ResponseEntity<Map<String, Object>> pitchJobStats() {
+        return ResponseEntity.ok(pitchJobService.stats());
+    }
+
+    @GetMapping("/ai-http-pool")
+    public ResponseEntity<Map<String, Object>> aiHttpPoolStats() {
+        Map<String, Object> response = new HashMap<>();
+        PoolingHttpClientConnectionManager pool = aiConnectionManager.getIfAvailable();
+        if (pool == null) {
+            response.put("protocol", "HTTP_2");
+            return ResponseEntity.ok(response);
+        }
+
+        PoolStats total = pool.getTotalStats();
+        response.put("protocol", "HTTP_1_1");
+        response.put("leased", total.getLeased());
+        response.put("available", total.getAvailable());
+        response.put("pending", total.getPending());
+        response.put("max", total.getMax());
+        response.put("utilization", total.getMax() == 0 ? 0.0 : (double) total.getLeased() / total.getMax());
+
+        Map<String, Object> routes = new HashMap<>();
+        pool.getRoutes().forEach(route -> {
+            PoolStats stats = pool.getStats(route);
+            routes.put(route.getTargetHost().toURI(), Map.of(
+                    "leased", stats.getLeased(),
+                    "available", stats.getAvailable(),
+                    "pending", stats.getPending(),
+                    "max", stats.getMax()
+            ));
+        });
+        response.put("routes", routes);
+        return ResponseEntity.ok(response);
+    }
+
+    private Map<String, Object> toMap(CacheStats stats) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("hits", stats.hitCount());
+        map.put("misses", stats.missCount());
+        map.put("hitRate", stats.hitRate());
+        map.put("loadFailures", stats.loadFailureCount());
+        map.put("evictions", stats.evictionCount());
+        return map;
+    }
 }
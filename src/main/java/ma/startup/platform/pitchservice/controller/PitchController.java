@@ -4,23 +4,41 @@ package ma.startup.platform.pitchservice.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import ma.startup.platform.pitchservice.client.AuthServiceClient;
-import ma.startup.platform.pitchservice.client.StartupServiceClient;
 import ma.startup.platform.pitchservice.dto.*;
-import ma.startup.platform.pitchservice.model.Pitch;
+import ma.startup.platform.pitchservice.exception.GenerationQueueFullException;
 import ma.startup.platform.pitchservice.model.PitchType;
-import ma.startup.platform.pitchservice.repository.PitchRepository;
+import ma.startup.platform.pitchservice.service.PitchExportService;
+import ma.startup.platform.pitchservice.service.PitchImportService;
+import ma.startup.platform.pitchservice.service.PitchJobService;
 import ma.startup.platform.pitchservice.service.PitchService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/pitchs")
@@ -28,49 +46,205 @@ import java.util.UUID;
 @Slf4j
 public class PitchController {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final MediaType MEDIA_TYPE_CSV = MediaType.parseMediaType("text/csv");
+    // Réponses privées à l'utilisateur, toujours revalidées via ETag
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final PitchService pitchService;
-    private final AuthServiceClient authServiceClient;
-    private final StartupServiceClient startupServiceClient;
-    private final PitchRepository pitchRepository;
+    private final PitchJobService pitchJobService;
+    private final PitchImportService pitchImportService;
+    private final PitchExportService pitchExportService;
+    @Qualifier("streamingExecutor")
+    private final TaskExecutor streamingExecutor;
+
+    @Value("${ai.stream.timeout-ms:120000}")
+    private long streamTimeoutMs;
 
     /**
      * ENDPOINT PRINCIPAL : Générer un nouveau pitch avec l'IA
-     * POST /api/pitchs/generate
+     * POST /api/pitchs/generate?regenerate=false&onDuplicate=REUSE|IMPROVE|GENERATE
+     * Demande quasi identique à un pitch existant : 200 avec ce pitch (REUSE) ou 201 avec sa version adaptée (IMPROVE)
      */
     @PostMapping("/generate")
     public ResponseEntity<PitchResponseDTO> generatePitch(
             @Valid @RequestBody PitchRequestDTO request,
-            @RequestHeader("Authorization") String authToken
+            @RequestHeader("Authorization") String authToken,
+            @RequestParam(defaultValue = "false") boolean regenerate,
+            @RequestParam(required = false) DuplicateStrategy onDuplicate
     ) {
         log.info("Requête de génération de pitch reçue");
-        PitchResponseDTO response = pitchService.generatePitch(request, authToken);
+        PitchResponseDTO response = pitchService.generatePitch(request, authToken, regenerate, onDuplicate);
+        // Pitch existant réutilisé : rien n'a été créé
+        boolean reused = response.getId() != null && response.getId().equals(response.getDuplicateOf());
+        return ResponseEntity.status(reused ? HttpStatus.OK : HttpStatus.CREATED).body(response);
+    }
+
+    /**
+     * Générer plusieurs types de pitch en parallèle pour la même demande
+     * POST /api/pitchs/generate/variants?types=ELEVATOR,DECK,VALUE_PROP (tous les types par défaut)
+     */
+    @PostMapping("/generate/variants")
+    public ResponseEntity<List<PitchResponseDTO>> generatePitchVariants(
+            @Valid @RequestBody PitchRequestDTO request,
+            @RequestHeader("Authorization") String authToken,
+            @RequestParam(required = false) Set<PitchType> types,
+            @RequestParam(defaultValue = "false") boolean regenerate
+    ) {
+        Set<PitchType> requested = types == null || types.isEmpty()
+                ? EnumSet.allOf(PitchType.class)
+                : EnumSet.copyOf(types);
+        log.info("Requête de génération multi-variantes reçue: {}", requested);
+        List<PitchResponseDTO> response = pitchService.generatePitchVariants(request, requested, authToken, regenerate);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Générer un pitch en arrière-plan : retourne immédiatement 202 avec l'ID de la tâche
+     * POST /api/pitchs/generate/async
+     */
+    @PostMapping("/generate/async")
+    public ResponseEntity<PitchJobDTO> generatePitchAsync(
+            @Valid @RequestBody PitchRequestDTO request,
+            @RequestHeader("Authorization") String authToken,
+            @RequestParam(defaultValue = "false") boolean regenerate
+    ) {
+        log.info("Requête de génération asynchrone de pitch reçue");
+        PitchJobDTO job = pitchJobService.submit(request, authToken, regenerate);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create("/api/pitchs/jobs/" + job.getJobId()))
+                .body(job);
+    }
+
+    /**
+     * Consulter l'état d'une génération asynchrone
+     * GET /api/pitchs/jobs/{jobId}
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<PitchJobDTO> getGenerationJob(
+            @PathVariable UUID jobId,
+            @RequestHeader("Authorization") String authToken
+    ) {
+        return ResponseEntity.ok(pitchJobService.getJob(jobId, authToken));
+    }
+
+    /**
+     * Générer un pitch en streaming (Server-Sent Events)
+     * POST /api/pitchs/generate/stream
+     * Événements : "token" pour chaque fragment, "done" avec le pitch sauvegardé, "error" en cas d'échec
+     */
+    @PostMapping(value = "/generate/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter generatePitchStream(
+            @Valid @RequestBody PitchRequestDTO request,
+            @RequestHeader("Authorization") String authToken,
+            @RequestParam(defaultValue = "false") boolean regenerate
+    ) {
+        log.info("Requête de génération de pitch en streaming reçue");
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+
+        try {
+            streamingExecutor.execute(() -> {
+                try {
+                    PitchResponseDTO saved = pitchService.generatePitchStream(
+                            request, authToken, regenerate,
+                            token -> SseEvents.send(emitter, "token", token)
+                    );
+                    SseEvents.send(emitter, "done", saved);
+                    emitter.complete();
+                } catch (Exception e) {
+                    SseEvents.fail(emitter, e);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            log.warn("File de streaming pleine, génération refusée");
+            throw new GenerationQueueFullException("Trop de générations en cours, réessayez plus tard");
+        }
+
+        return emitter;
+    }
+
+    /**
+     * Importer des pitchs en masse (migration depuis un autre système)
+     * POST /api/pitchs/import, corps NDJSON (application/x-ndjson) ou CSV avec en-tête (text/csv)
+     * Champs : probleme, solution, cible, avantage, pitchGenere, type, rating, isFavorite, createdAt
+     */
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<PitchImportReportDTO> importPitchs(
+            InputStream body,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestHeader("Authorization") String authToken
+    ) {
+        PitchImportFormat format = MediaType.parseMediaType(contentType).isCompatibleWith(MEDIA_TYPE_CSV)
+                ? PitchImportFormat.CSV
+                : PitchImportFormat.NDJSON;
+        log.info("Requête d'import de pitchs reçue ({})", format);
+        return ResponseEntity.ok(pitchImportService.importPitchs(body, format, authToken));
+    }
+
+    /**
+     * Exporter tous mes pitchs (ou mes favoris) en flux, quel que soit leur nombre
+     * GET /api/pitchs/me/export?format=ndjson|csv&gzip=false&favorite=false
+     * Mêmes champs que l'import ; gzip=true compresse la réponse (Content-Encoding: gzip)
+     */
+    @GetMapping("/me/export")
+    public void exportMyPitchs(
+            @RequestHeader("Authorization") String authToken,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(defaultValue = "false") boolean favorite,
+            HttpServletResponse response
+    ) throws IOException {
+        PitchImportFormat exportFormat = PitchImportFormat.fromParam(format);
+        log.info("Export des pitchs ({}, gzip: {})", exportFormat, gzip);
+        PitchExportService.PitchExport export = pitchExportService.open(authToken, exportFormat, favorite);
+
+        String filename = exportFormat == PitchImportFormat.CSV ? "pitchs.csv" : "pitchs.ndjson";
+        response.setContentType(exportFormat == PitchImportFormat.CSV
+                ? "text/csv;charset=UTF-8"
+                : "application/x-ndjson;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename).build().toString());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        OutputStream body = response.getOutputStream();
+        try (OutputStream out = gzip ? new GZIPOutputStream(body, 8192) : body) {
+            export.writeTo(out);
+        }
+    }
+
     /**
      * Récupérer tous mes pitchs
-     * GET /api/pitchs/me
+     * GET /api/pitchs/me?fields=id,type,createdAt (fields optionnel : seules ces colonnes sont lues et renvoyées)
+     * ETag sur la liste : 304 Not Modified si If-None-Match correspond
      */
     @GetMapping("/me")
-    public ResponseEntity<List<PitchResponseDTO>> getMyPitchs(
-            @RequestHeader("Authorization") String authToken
+    public ResponseEntity<?> getMyPitchs(
+            @RequestHeader("Authorization") String authToken,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest
     ) {
         log.info("Récupération de tous les pitchs");
-        List<PitchResponseDTO> pitchs = pitchService.getMyPitchs(authToken);
-        return ResponseEntity.ok(pitchs);
+        return pitchService.getMyPitchsIfModified(authToken, false, PitchField.parse(fields),
+                        validator -> checkNotModified(webRequest, validator))
+                .<ResponseEntity<?>>map(pitchs -> ResponseEntity.ok().cacheControl(REVALIDATE).body(pitchs))
+                .orElseGet(PitchController::notModified);
     }
 
     /**
      * Récupérer mes pitchs avec pagination
-     * GET /api/pitchs/me/paginated?page=0&size=10
+     * GET /api/pitchs/me/paginated?page=0&size=10&fields=id,type,createdAt
      */
     @GetMapping("/me/paginated")
-    public ResponseEntity<Page<PitchResponseDTO>> getMyPitchsPaginated(
+    public ResponseEntity<Page<?>> getMyPitchsPaginated(
             @RequestHeader("Authorization") String authToken,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "DESC") String direction
+            @RequestParam(defaultValue = "DESC") String direction,
+            @RequestParam(required = false) String fields
     ) {
         log.info("Récupération des pitchs paginés - page: {}, size: {}", page, size);
 
@@ -78,24 +252,80 @@ public class PitchController {
                 ? Sort.Direction.ASC
                 : Sort.Direction.DESC;
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
+        // Seules les clés de tri indexées sont acceptées
+        String sortProperty = PitchSortKey.fromParam(sortBy).getProperty();
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortProperty));
+        Set<PitchField> selected = PitchField.parse(fields);
+        if (selected != null) {
+            return ResponseEntity.ok(pitchService.getMyPitchsPaginatedFields(authToken, pageable, selected));
+        }
         Page<PitchResponseDTO> pitchsPage = pitchService.getMyPitchsPaginated(authToken, pageable);
 
         return ResponseEntity.ok(pitchsPage);
     }
 
+    /**
+     * Récupérer mes pitchs par curseur, sans COUNT ni OFFSET
+     * GET /api/pitchs/me/cursor?size=20&sort=createdAt&direction=DESC&favorite=false&type=DECK&fields=...&cursor=...
+     * Le champ nextCursor de la réponse se passe tel quel dans "cursor" pour obtenir la page suivante.
+     */
+    @GetMapping("/me/cursor")
+    public ResponseEntity<CursorPageDTO<?>> getMyPitchsByCursor(
+            @RequestHeader("Authorization") String authToken,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "createdAt") String sort,
+            @RequestParam(defaultValue = "DESC") String direction,
+            @RequestParam(defaultValue = "false") boolean favorite,
+            @RequestParam(required = false) PitchType type,
+            @RequestParam(required = false) String fields
+    ) {
+        PitchListQuery query = PitchListQuery.builder()
+                .cursor(cursor)
+                .size(Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE)))
+                .sort(PitchSortKey.fromParam(sort))
+                .direction(direction.equalsIgnoreCase("ASC") ? Sort.Direction.ASC : Sort.Direction.DESC)
+                .favoritesOnly(favorite)
+                .type(type)
+                .build();
+        Set<PitchField> selected = PitchField.parse(fields);
+        if (selected != null) {
+            return ResponseEntity.ok(pitchService.getMyPitchsByCursorFields(authToken, query, selected));
+        }
+        return ResponseEntity.ok(pitchService.getMyPitchsByCursor(authToken, query));
+    }
+
+    /**
+     * Recherche plein texte dans mes pitchs (français : pluriels et conjugaisons sont rapprochés)
+     * GET /api/pitchs/me/search?q=paiement mobile -banque&size=20&cursor=...
+     * Syntaxe de q : mots, "expression exacte", OR, -exclusion
+     */
+    @GetMapping("/me/search")
+    public ResponseEntity<CursorPageDTO<PitchSearchHitDTO>> searchMyPitchs(
+            @RequestHeader("Authorization") String authToken,
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(pitchService.searchMyPitchs(authToken, q, cursor,
+                Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE))));
+    }
+
     /**
      * Récupérer un pitch spécifique par ID
      * GET /api/pitchs/{id}
+     * ETag et Last-Modified : 304 Not Modified si If-None-Match / If-Modified-Since correspondent
      */
     @GetMapping("/{id}")
     public ResponseEntity<PitchResponseDTO> getPitchById(
             @PathVariable UUID id,
-            @RequestHeader("Authorization") String authToken
+            @RequestHeader("Authorization") String authToken,
+            WebRequest webRequest
     ) {
         log.info("Récupération du pitch ID: {}", id);
-        PitchResponseDTO pitch = pitchService.getPitchById(id, authToken);
-        return ResponseEntity.ok(pitch);
+        return pitchService.getPitchByIdIfModified(id, authToken, validator -> checkNotModified(webRequest, validator))
+                .map(pitch -> ResponseEntity.ok().cacheControl(REVALIDATE).body(pitch))
+                .orElseGet(PitchController::notModified);
     }
 
     /**
@@ -156,17 +386,34 @@ public class PitchController {
         return ResponseEntity.ok(ratedPitch);
     }
 
+    /**
+     * Appliquer une opération à plusieurs pitchs en une seule requête
+     * POST /api/pitchs/bulk  {"ids": [...], "operation": "FAVORITE|UNFAVORITE|RATE|DELETE", "rating": 4}
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkPitchResultDTO> bulkUpdate(
+            @Valid @RequestBody BulkPitchRequestDTO request,
+            @RequestHeader("Authorization") String authToken
+    ) {
+        log.info("Opération en masse {} reçue", request.getOperation());
+        return ResponseEntity.ok(pitchService.bulkUpdate(request, authToken));
+    }
+
     /**
      * Récupérer les pitchs favoris uniquement
-     * GET /api/pitchs/me/favorites
+     * GET /api/pitchs/me/favorites?fields=id,type,createdAt (ETag comme /me)
      */
     @GetMapping("/me/favorites")
-    public ResponseEntity<List<PitchResponseDTO>> getFavoritePitchs(
-            @RequestHeader("Authorization") String authToken
+    public ResponseEntity<?> getFavoritePitchs(
+            @RequestHeader("Authorization") String authToken,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest
     ) {
         log.info("Récupération des pitchs favoris");
-        List<PitchResponseDTO> favoritePitchs = pitchService.getFavoritePitchs(authToken);
-        return ResponseEntity.ok(favoritePitchs);
+        return pitchService.getMyPitchsIfModified(authToken, true, PitchField.parse(fields),
+                        validator -> checkNotModified(webRequest, validator))
+                .<ResponseEntity<?>>map(pitchs -> ResponseEntity.ok().cacheControl(REVALIDATE).body(pitchs))
+                .orElseGet(PitchController::notModified);
     }
 
     /**
@@ -188,43 +435,22 @@ public class PitchController {
     ) {
         log.info("Test de génération de pitch SANS Gemini");
 
-        // Vérifier l'utilisateur
-        UserDTO user = authServiceClient.getCurrentUser(authToken);
-
-        // Récupérer la startup
-        StartupDTO startup = startupServiceClient.getMyStartup(authToken);
-
-        // Créer un pitch de test SANS appeler Gemini
-        Pitch pitch = Pitch.builder()
-                .startupId(startup.getId())
-                .probleme(request.getProbleme())
-                .solution(request.getSolution())
-                .cible(request.getCible())
-                .avantage(request.getAvantage())
-                .pitchGenere("PITCH DE TEST : " + startup.getNom() + " résout " + request.getProbleme() + " avec " + request.getSolution())
-                .type(PitchType.ELEVATOR)
-                .isFavorite(false)
-                .build();
+        PitchResponseDTO pitch = pitchService.generateTestPitch(request, authToken);
+        return ResponseEntity.status(HttpStatus.CREATED).body(pitch);
+    }
 
-        Pitch savedPitch = pitchRepository.save(pitch);
-
-        return ResponseEntity.status(HttpStatus.CREATED).body(mapToResponseDTO(savedPitch));
-    }
-
-    private PitchResponseDTO mapToResponseDTO(Pitch pitch) {
-        return PitchResponseDTO.builder()
-                .id(pitch.getId())
-                .startupId(pitch.getStartupId())
-                .probleme(pitch.getProbleme())
-                .solution(pitch.getSolution())
-                .cible(pitch.getCible())
-                .avantage(pitch.getAvantage())
-                .pitchGenere(pitch.getPitchGenere())
-                .type(pitch.getType())
-                .rating(pitch.getRating())
-                .isFavorite(pitch.getIsFavorite())
-                .createdAt(pitch.getCreatedAt())
-                .updatedAt(pitch.getUpdatedAt())
-                .build();
+    /**
+     * Compare le validateur aux en-têtes If-None-Match / If-Modified-Since ;
+     * ETag et Last-Modified sont ajoutés à la réponse dans tous les cas
+     */
+    private static boolean checkNotModified(WebRequest webRequest, ResourceValidator validator) {
+        if (validator.lastModified() != null) {
+            return webRequest.checkNotModified(validator.etag(), validator.lastModified().toEpochMilli());
+        }
+        return webRequest.checkNotModified(validator.etag());
+    }
+
+    private static <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
     }
 }
@@ -0,0 +1,40 @@
+package ma.startup.platform.pitchservice.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * Envoi d'événements SSE communs aux endpoints de génération en streaming
+ */
+@Slf4j
+final class SseEvents {
+
+    private SseEvents() {
+    }
+
+    /**
+     * Envoie un événement ; une IOException signifie que le client s'est déconnecté
+     * et interrompt la génération en cours.
+     */
+    static void send(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Client SSE déconnecté", e);
+        }
+    }
+
+    static void fail(SseEmitter emitter, Exception e) {
+        log.error("Erreur pendant le streaming: {}", e.getMessage());
+        try {
+            emitter.send(SseEmitter.event().name("error").data(Map.of("message", String.valueOf(e.getMessage()))));
+            emitter.complete();
+        } catch (Exception ignored) {
+            emitter.completeWithError(e);
+        }
+    }
+}
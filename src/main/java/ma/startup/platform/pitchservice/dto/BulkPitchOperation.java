@@ -0,0 +1,11 @@
+package ma.startup.platform.pitchservice.dto;
+
+/**
+ * Opérations applicables à une liste de pitchs en une seule requête SQL
+ */
+public enum BulkPitchOperation {
+    FAVORITE,
+    UNFAVORITE,
+    RATE,
+    DELETE
+}
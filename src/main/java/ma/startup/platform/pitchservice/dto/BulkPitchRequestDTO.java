@@ -0,0 +1,29 @@
+package ma.startup.platform.pitchservice.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkPitchRequestDTO {
+
+    @NotEmpty(message = "La liste des pitchs ne peut pas être vide")
+    @Size(max = 1000, message = "Au plus 1000 pitchs par opération")
+    private List<UUID> ids;
+
+    @NotNull(message = "L'opération est obligatoire")
+    private BulkPitchOperation operation;
+
+    // Obligatoire pour RATE (1 à 5)
+    private Integer rating;
+}
@@ -0,0 +1,20 @@
+package ma.startup.platform.pitchservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkPitchResultDTO {
+    private BulkPitchOperation operation;
+    private int affected;
+    // Pitchs réellement modifiés ; les IDs inconnus, d'une autre startup ou déjà dans l'état demandé n'y figurent pas
+    private List<UUID> affectedIds;
+}
@@ -0,0 +1,13 @@
+package ma.startup.platform.pitchservice.dto;
+
+/**
+ * Conduite à tenir quand une demande de génération est quasi identique à un pitch existant
+ */
+public enum DuplicateStrategy {
+    // Générer quand même un nouveau pitch
+    GENERATE,
+    // Renvoyer le pitch existant, sans appel IA ni nouvelle ligne
+    REUSE,
+    // Adapter le pitch existant aux nouvelles informations (improvePitch), au lieu de tout régénérer
+    IMPROVE
+}
@@ -0,0 +1,42 @@
+package ma.startup.platform.pitchservice.dto;
+
+import ma.startup.platform.pitchservice.exception.InvalidPitchQueryException;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position dans un listing par clé (keyset) : valeur de tri et ID du dernier pitch renvoyé.
+ * Transmis au client sous forme opaque (Base64 URL) ; le tri et le sens y sont inclus
+ * pour refuser un curseur réutilisé avec d'autres paramètres.
+ */
+public record PitchCursor(PitchSortKey sort, Sort.Direction direction, LocalDateTime value, UUID id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = sort.name() + SEPARATOR + direction.name() + SEPARATOR + value + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PitchCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException(raw);
+            }
+            return new PitchCursor(
+                    PitchSortKey.valueOf(parts[0]),
+                    Sort.Direction.valueOf(parts[1]),
+                    LocalDateTime.parse(parts[2]),
+                    UUID.fromString(parts[3])
+            );
+        } catch (RuntimeException e) {
+            throw new InvalidPitchQueryException("Curseur invalide");
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package ma.startup.platform.pitchservice.dto;
+
+import ma.startup.platform.pitchservice.exception.InvalidPitchQueryException;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Champs sélectionnables via le paramètre "fields" ; le nom JSON est aussi la propriété JPA de Pitch
+ */
+public enum PitchField {
+    ID("id"),
+    STARTUP_ID("startupId"),
+    PROBLEME("probleme"),
+    SOLUTION("solution"),
+    CIBLE("cible"),
+    AVANTAGE("avantage"),
+    PITCH_GENERE("pitchGenere"),
+    TYPE("type"),
+    RATING("rating"),
+    IS_FAVORITE("isFavorite"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt");
+
+    private final String property;
+
+    PitchField(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * "id,type,createdAt" -> {ID, TYPE, CREATED_AT} ; null si aucun champ n'est demandé (réponse complète)
+     */
+    public static Set<PitchField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<PitchField> selected = EnumSet.noneOf(PitchField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            selected.add(Arrays.stream(values())
+                    .filter(field -> field.property.equalsIgnoreCase(trimmed))
+                    .findFirst()
+                    .orElseThrow(() -> new InvalidPitchQueryException("Champ inconnu: " + trimmed + " (valeurs possibles: "
+                            + Arrays.stream(values()).map(PitchField::getProperty).collect(Collectors.joining(", ")) + ")")));
+        }
+        return selected.isEmpty() ? null : selected;
+    }
+}
@@ -0,0 +1,25 @@
+package ma.startup.platform.pitchservice.dto;
+
+import ma.startup.platform.pitchservice.exception.InvalidPitchQueryException;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Formats acceptés par l'import en masse (et produits par l'export) : un objet JSON par ligne,
+ * ou CSV avec ligne d'en-tête
+ */
+public enum PitchImportFormat {
+    NDJSON,
+    CSV;
+
+    public static PitchImportFormat fromParam(String value) {
+        return Arrays.stream(values())
+                .filter(format -> format.name().equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new InvalidPitchQueryException("Format non supporté: " + value
+                        + " (valeurs possibles: " + Arrays.stream(values())
+                        .map(format -> format.name().toLowerCase())
+                        .collect(Collectors.joining(", ")) + ")"));
+    }
+}
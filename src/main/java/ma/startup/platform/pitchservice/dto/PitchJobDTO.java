@@ -0,0 +1,24 @@
+package ma.startup.platform.pitchservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ma.startup.platform.pitchservice.model.PitchJobStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PitchJobDTO {
+    private UUID jobId;
+    private PitchJobStatus status;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private PitchResponseDTO result;
+    private String error;
+}
@@ -0,0 +1,26 @@
+package ma.startup.platform.pitchservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ma.startup.platform.pitchservice.model.PitchType;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Paramètres d'un listing de pitchs par curseur
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PitchListQuery {
+    private String cursor;
+    private int size;
+    @Builder.Default
+    private PitchSortKey sort = PitchSortKey.CREATED_AT;
+    @Builder.Default
+    private Sort.Direction direction = Sort.Direction.DESC;
+    private boolean favoritesOnly;
+    private PitchType type;
+}
@@ -1,5 +1,6 @@
 package ma.startup.platform.pitchservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -26,4 +27,10 @@ public class PitchResponseDTO {
     private Boolean isFavorite;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+
+    // Renseignés seulement quand la demande de génération était quasi identique à ce pitch existant
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private UUID duplicateOf;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double similarity;
 }
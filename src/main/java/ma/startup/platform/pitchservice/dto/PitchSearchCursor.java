@@ -0,0 +1,43 @@
+package ma.startup.platform.pitchservice.dto;
+
+import ma.startup.platform.pitchservice.exception.InvalidPitchQueryException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position dans les résultats d'une recherche : pertinence et ID du dernier pitch renvoyé.
+ * L'empreinte de la requête est incluse pour refuser un curseur réutilisé avec d'autres termes.
+ */
+public record PitchSearchCursor(int queryHash, float rank, UUID id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = queryHash + SEPARATOR + rank + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PitchSearchCursor decode(String cursor, String query) {
+        PitchSearchCursor decoded;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException(raw);
+            }
+            decoded = new PitchSearchCursor(
+                    Integer.parseInt(parts[0]),
+                    Float.parseFloat(parts[1]),
+                    UUID.fromString(parts[2])
+            );
+        } catch (RuntimeException e) {
+            throw new InvalidPitchQueryException("Curseur invalide");
+        }
+        if (decoded.queryHash() != query.hashCode()) {
+            throw new InvalidPitchQueryException("Curseur obtenu avec une autre recherche");
+        }
+        return decoded;
+    }
+}
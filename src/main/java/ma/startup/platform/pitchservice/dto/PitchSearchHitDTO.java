@@ -0,0 +1,17 @@
+package ma.startup.platform.pitchservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PitchSearchHitDTO {
+    private PitchResponseDTO pitch;
+    private float rank;
+    // Extraits contenant les termes trouvés, encadrés par <mark></mark> (texte échappé en HTML)
+    private String highlight;
+}
@@ -0,0 +1,33 @@
+package ma.startup.platform.pitchservice.dto;
+
+import ma.startup.platform.pitchservice.exception.InvalidPitchQueryException;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Clés de tri autorisées pour les listings de pitchs, chacune couverte par un index (startup_id, colonne, id)
+ * (voir db/migration/V2__pitch_indexes.sql)
+ */
+public enum PitchSortKey {
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt");
+
+    private final String property;
+
+    PitchSortKey(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public static PitchSortKey fromParam(String value) {
+        return Arrays.stream(values())
+                .filter(key -> key.property.equalsIgnoreCase(value) || key.name().equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new InvalidPitchQueryException("Tri non autorisé: " + value + " (valeurs possibles: "
+                        + Arrays.stream(values()).map(PitchSortKey::getProperty).collect(Collectors.joining(", ")) + ")"));
+    }
+}
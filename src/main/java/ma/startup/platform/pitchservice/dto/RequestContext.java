@@ -0,0 +1,18 @@
+package ma.startup.platform.pitchservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Identité résolue pour une requête : l'utilisateur authentifié et sa startup
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RequestContext {
+    private UserDTO user;
+    private StartupDTO startup;
+}
@@ -0,0 +1,49 @@
+package ma.startup.platform.pitchservice.dto;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Validateur HTTP d'une ressource (ETag fort, Last-Modified optionnel), calculé à partir
+ * des seules métadonnées des pitchs pour répondre 304 sans relire leur contenu.
+ */
+public record ResourceValidator(String etag, Instant lastModified) {
+
+    /**
+     * Un pitch : la version optimiste change à chaque écriture
+     */
+    public static ResourceValidator forPitch(UUID pitchId, Long version, LocalDateTime updatedAt) {
+        return new ResourceValidator(
+                quote(pitchId + "-" + (version != null ? version : 0)),
+                updatedAt != null ? updatedAt.atZone(ZoneId.systemDefault()).toInstant() : null
+        );
+    }
+
+    /**
+     * Une liste : nombre de lignes et dernière mise à jour, plus les paramètres qui changent la représentation.
+     * Pas de Last-Modified : une suppression ne fait pas avancer la date maximale.
+     */
+    public static ResourceValidator forCollection(UUID startupId, boolean favoritesOnly, Set<PitchField> fields,
+                                                  long count, LocalDateTime lastUpdatedAt) {
+        String selected = fields == null ? "*" : fields.stream()
+                .map(Enum::name)
+                .sorted()
+                .collect(Collectors.joining(","));
+        String raw = startupId + "|" + favoritesOnly + "|" + selected + "|" + count + "|" + lastUpdatedAt;
+        return new ResourceValidator(
+                quote(DigestUtils.md5DigestAsHex(raw.getBytes(StandardCharsets.UTF_8))),
+                null
+        );
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+}
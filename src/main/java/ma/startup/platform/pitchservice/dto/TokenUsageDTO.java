@@ -0,0 +1,29 @@
+package ma.startup.platform.pitchservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Consommation de jetons IA d'une startup : jour en cours et mois en cours.
+ * Un quota null signifie "illimité".
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenUsageDTO {
+    private LocalDate date;
+    private Long dailyTokens;
+    private Long dailyQuota;
+    private Long monthlyTokens;
+    private Long monthlyQuota;
+    private Long monthlyPromptTokens;
+    private Long monthlyCompletionTokens;
+    private Long monthlyCalls;
+    private Map<String, Long> monthlyTokensByType;
+}
@@ -0,0 +1,12 @@
+package ma.startup.platform.pitchservice.exception;
+
+/**
+ * Levée quand une startup a épuisé son quota quotidien ou mensuel de jetons IA.
+ * Traitée comme une limite de débit : 429 avec Retry-After jusqu'au début de la période suivante.
+ */
+public class AIQuotaExceededException extends AIRateLimitException {
+
+    public AIQuotaExceededException(String message, long retryAfterSeconds) {
+        super(message, retryAfterSeconds);
+    }
+}
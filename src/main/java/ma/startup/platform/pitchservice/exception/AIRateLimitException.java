@@ -0,0 +1,18 @@
+package ma.startup.platform.pitchservice.exception;
+
+/**
+ * Levée quand le fournisseur d'IA limite le débit et que l'attente maximale est dépassée
+ */
+public class AIRateLimitException extends AIException {
+
+    private final long retryAfterSeconds;
+
+    public AIRateLimitException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
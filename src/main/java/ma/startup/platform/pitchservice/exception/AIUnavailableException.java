@@ -0,0 +1,18 @@
+package ma.startup.platform.pitchservice.exception;
+
+/**
+ * Levée sans appeler le fournisseur d'IA quand le circuit breaker est ouvert
+ */
+public class AIUnavailableException extends AIException {
+
+    private final long retryAfterSeconds;
+
+    public AIUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
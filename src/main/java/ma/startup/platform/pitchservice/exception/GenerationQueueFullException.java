@@ -0,0 +1,10 @@
+package ma.startup.platform.pitchservice.exception;
+
+/**
+ * Levée quand la file des générations asynchrones (ou des générations en streaming) est pleine
+ */
+public class GenerationQueueFullException extends RuntimeException {
+    public GenerationQueueFullException(String message) {
+        super(message);
+    }
+}
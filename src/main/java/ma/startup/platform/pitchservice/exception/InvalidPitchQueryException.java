@@ -0,0 +1,10 @@
+package ma.startup.platform.pitchservice.exception;
+
+/**
+ * Paramètres de listing invalides (curseur illisible, clé de tri non autorisée...)
+ */
+public class InvalidPitchQueryException extends RuntimeException {
+    public InvalidPitchQueryException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package ma.startup.platform.pitchservice.exception;
+
+import java.util.UUID;
+
+/**
+ * Levée quand un pitch a été modifié par une autre requête pendant sa régénération
+ */
+public class PitchConflictException extends RuntimeException {
+    public PitchConflictException(UUID pitchId) {
+        super("Le pitch " + pitchId + " a été modifié pendant la mise à jour");
+    }
+}
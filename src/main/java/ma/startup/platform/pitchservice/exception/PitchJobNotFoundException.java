@@ -0,0 +1,9 @@
+package ma.startup.platform.pitchservice.exception;
+
+import java.util.UUID;
+
+public class PitchJobNotFoundException extends RuntimeException {
+    public PitchJobNotFoundException(UUID jobId) {
+        super("Tâche de génération non trouvée avec l'ID: " + jobId);
+    }
+}
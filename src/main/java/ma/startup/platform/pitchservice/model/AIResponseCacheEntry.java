@@ -0,0 +1,44 @@
+package ma.startup.platform.pitchservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Réponse IA mise en cache, partagée entre instances et conservée après redémarrage.
+ * La clé est l'empreinte SHA-256 de (modèle, prompt normalisé, temperature, max_tokens).
+ */
+@Entity
+@Table(name = "ai_response_cache", schema = "pitch_schema")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AIResponseCacheEntry {
+
+    @Id
+    @Column(name = "cache_key", length = 64)
+    private String cacheKey;
+
+    @Column(nullable = false, length = 100)
+    private String model;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "pitch_type", length = 50)
+    private PitchType pitchType;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String response;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -59,6 +59,14 @@ public class Pitch {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
+    // SimHash de probleme/solution/cible/avantage (PitchSimilarityIndex)
+    @Column(name = "input_simhash")
+    private Long inputSimhash;
+
     @PrePersist
     public void prePersist() {
         if (this.isFavorite == null) {
@@ -0,0 +1,8 @@
+package ma.startup.platform.pitchservice.model;
+
+public enum PitchJobStatus {
+    QUEUED,        // En attente d'un worker
+    RUNNING,       // Génération en cours
+    SUCCEEDED,     // Pitch généré et sauvegardé
+    FAILED         // Échec de la génération
+}
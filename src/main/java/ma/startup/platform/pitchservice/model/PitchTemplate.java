@@ -5,11 +5,13 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import ma.startup.platform.pitchservice.service.PromptTemplateInvalidationListener;
 
 import java.util.UUID;
 
 @Entity
 @Table(name = "pitch_templates", schema = "pitch_schema")
+@EntityListeners(PromptTemplateInvalidationListener.class)
 @Data
 @Builder
 @NoArgsConstructor
@@ -29,6 +31,11 @@ public class PitchTemplate {
     @Column(length = 100)
     private String secteur;
 
+    // Type de pitch ciblé ; null : tous les types du secteur
+    @Enumerated(EnumType.STRING)
+    @Column(length = 50)
+    private PitchType type;
+
     @Column(name = "is_active")
     private Boolean isActive = true;
 
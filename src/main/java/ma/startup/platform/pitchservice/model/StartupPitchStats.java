@@ -0,0 +1,51 @@
+package ma.startup.platform.pitchservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Statistiques des pitchs d'une startup, maintenues à chaque création, suppression, favori ou note,
+ * dans la même transaction que la modification du pitch.
+ */
+@Entity
+@Table(name = "startup_pitch_stats", schema = "pitch_schema")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StartupPitchStats {
+
+    @Id
+    @Column(name = "startup_id")
+    private UUID startupId;
+
+    @Column(name = "total_pitchs", nullable = false)
+    private long totalPitchs;
+
+    @Column(name = "favorite_pitchs", nullable = false)
+    private long favoritePitchs;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "rating_count", nullable = false)
+    private long ratingCount;
+
+    @Column(name = "elevator_pitchs", nullable = false)
+    private long elevatorPitchs;
+
+    @Column(name = "deck_pitchs", nullable = false)
+    private long deckPitchs;
+
+    @Column(name = "value_prop_pitchs", nullable = false)
+    private long valuePropPitchs;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
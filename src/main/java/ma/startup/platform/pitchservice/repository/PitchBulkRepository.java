@@ -0,0 +1,54 @@
+package ma.startup.platform.pitchservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import ma.startup.platform.pitchservice.model.Pitch;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Insertions en masse par lots JDBC, sans contexte de persistance : les IDs sont attribués côté client
+ * et aucune entité n'est conservée en mémoire entre deux lots.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PitchBulkRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO pitch_schema.pitchs " +
+            "(id, startup_id, probleme, solution, cible, avantage, pitch_genere, type, " +
+            "rating, is_favorite, created_at, updated_at, input_simhash, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Insérer les pitchs (id et dates déjà renseignés) en lots de batchSize requêtes
+    public void insertAll(List<Pitch> pitchs, int batchSize) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, pitchs, batchSize, (ps, pitch) -> {
+            ps.setObject(1, pitch.getId());
+            ps.setObject(2, pitch.getStartupId());
+            ps.setString(3, pitch.getProbleme());
+            ps.setString(4, pitch.getSolution());
+            ps.setString(5, pitch.getCible());
+            ps.setString(6, pitch.getAvantage());
+            ps.setString(7, pitch.getPitchGenere());
+            ps.setString(8, pitch.getType().name());
+            if (pitch.getRating() != null) {
+                ps.setInt(9, pitch.getRating());
+            } else {
+                ps.setNull(9, Types.INTEGER);
+            }
+            ps.setBoolean(10, Boolean.TRUE.equals(pitch.getIsFavorite()));
+            ps.setTimestamp(11, Timestamp.valueOf(pitch.getCreatedAt()));
+            ps.setTimestamp(12, Timestamp.valueOf(pitch.getUpdatedAt()));
+            if (pitch.getInputSimhash() != null) {
+                ps.setLong(13, pitch.getInputSimhash());
+            } else {
+                ps.setNull(13, Types.BIGINT);
+            }
+        });
+    }
+}
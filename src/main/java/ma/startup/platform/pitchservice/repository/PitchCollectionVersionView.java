@@ -0,0 +1,12 @@
+package ma.startup.platform.pitchservice.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Métadonnées d'une liste de pitchs (requêtes conditionnelles) : nombre de lignes et dernière mise à jour
+ */
+public interface PitchCollectionVersionView {
+    Long getCount();
+
+    LocalDateTime getLastUpdatedAt();
+}
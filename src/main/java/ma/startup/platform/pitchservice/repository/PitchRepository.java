@@ -4,18 +4,23 @@ package ma.startup.platform.pitchservice.repository;
 import feign.Param;
 import ma.startup.platform.pitchservice.model.Pitch;
 import ma.startup.platform.pitchservice.model.PitchType;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface PitchRepository extends JpaRepository<Pitch, UUID> {
+public interface PitchRepository extends JpaRepository<Pitch, UUID>, PitchRepositoryCustom {
 
     // Trouver tous les pitchs d'une startup
     List<Pitch> findByStartupIdOrderByCreatedAtDesc(UUID startupId);
@@ -45,4 +50,43 @@ public interface PitchRepository extends JpaRepository<Pitch, UUID> {
     // Moyenne des ratings pour une startup
     @Query("SELECT AVG(p.rating) FROM Pitch p WHERE p.startupId = :startupId AND p.rating IS NOT NULL")
     Double getAverageRatingForStartup(@Param("startupId") UUID startupId);
+
+    // Opérations en masse : état des pitchs ciblés, verrouillés jusqu'à la fin de la transaction
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p.id AS id, p.type AS type, p.isFavorite AS isFavorite, p.rating AS rating " +
+            "FROM Pitch p WHERE p.startupId = :startupId AND p.id IN :ids")
+    List<PitchStateView> lockStates(@Param("startupId") UUID startupId, @Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("UPDATE Pitch p SET p.isFavorite = :favorite, p.updatedAt = :now, " +
+            "p.version = COALESCE(p.version, 0) + 1 WHERE p.startupId = :startupId AND p.id IN :ids")
+    int updateFavorite(@Param("startupId") UUID startupId, @Param("ids") Collection<UUID> ids,
+                       @Param("favorite") boolean favorite, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Pitch p SET p.rating = :rating, p.updatedAt = :now, " +
+            "p.version = COALESCE(p.version, 0) + 1 WHERE p.startupId = :startupId AND p.id IN :ids")
+    int updateRating(@Param("startupId") UUID startupId, @Param("ids") Collection<UUID> ids,
+                     @Param("rating") Integer rating, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM Pitch p WHERE p.startupId = :startupId AND p.id IN :ids")
+    int deleteByStartupIdAndIdIn(@Param("startupId") UUID startupId, @Param("ids") Collection<UUID> ids);
+
+    // Requêtes conditionnelles (ETag / Last-Modified) : métadonnées seulement
+    @Query("SELECT p.version AS version, p.updatedAt AS updatedAt FROM Pitch p " +
+            "WHERE p.id = :id AND p.startupId = :startupId")
+    Optional<PitchVersionView> findVersionByIdAndStartupId(@Param("id") UUID id, @Param("startupId") UUID startupId);
+
+    @Query("SELECT COUNT(p) AS count, MAX(p.updatedAt) AS lastUpdatedAt FROM Pitch p WHERE p.startupId = :startupId")
+    PitchCollectionVersionView findCollectionVersion(@Param("startupId") UUID startupId);
+
+    @Query("SELECT COUNT(p) AS count, MAX(p.updatedAt) AS lastUpdatedAt FROM Pitch p " +
+            "WHERE p.startupId = :startupId AND p.isFavorite = true")
+    PitchCollectionVersionView findFavoritesCollectionVersion(@Param("startupId") UUID startupId);
+
+    // Index de similarité : empreintes des pitchs d'une startup
+    @Query("SELECT p.id AS id, p.type AS type, p.inputSimhash AS inputSimhash FROM Pitch p " +
+            "WHERE p.startupId = :startupId AND p.inputSimhash IS NOT NULL")
+    List<PitchSignatureView> findSignatures(@Param("startupId") UUID startupId);
 }
@@ -0,0 +1,27 @@
+package ma.startup.platform.pitchservice.repository;
+
+import ma.startup.platform.pitchservice.dto.PitchCursor;
+import ma.startup.platform.pitchservice.dto.PitchField;
+import ma.startup.platform.pitchservice.dto.PitchListQuery;
+import ma.startup.platform.pitchservice.model.Pitch;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public interface PitchRepositoryCustom {
+
+    // Page suivante par clé (created_at/updated_at, id), sans OFFSET ni COUNT
+    List<Pitch> findPage(UUID startupId, PitchListQuery query, PitchCursor after, int limit);
+
+    // Même listing, en ne sélectionnant que les colonnes demandées (plus id et la clé de tri, nécessaires au curseur).
+    // offset > 0 uniquement pour la pagination classique ; limit <= 0 = pas de limite
+    List<Map<String, Object>> findProjected(UUID startupId, PitchListQuery query, PitchCursor after,
+                                            Set<PitchField> fields, long offset, int limit);
+
+    // Tous les pitchs de la startup, lus par curseur JDBC (fetchSize lignes par aller-retour) et détachés
+    // un à un : rien ne s'accumule dans le contexte de persistance. À consommer dans une transaction, puis fermer.
+    Stream<Pitch> streamAll(UUID startupId, boolean favoritesOnly, int fetchSize);
+}
@@ -0,0 +1,121 @@
+package ma.startup.platform.pitchservice.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import ma.startup.platform.pitchservice.dto.PitchCursor;
+import ma.startup.platform.pitchservice.dto.PitchField;
+import ma.startup.platform.pitchservice.dto.PitchListQuery;
+import ma.startup.platform.pitchservice.model.Pitch;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Requêtes de listing par clé et par projection. Seules des propriétés issues de PitchSortKey et PitchField
+ * sont insérées dans le HQL ; les valeurs venant du client sont toujours passées en paramètres.
+ */
+class PitchRepositoryImpl implements PitchRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Pitch> findPage(UUID startupId, PitchListQuery query, PitchCursor after, int limit) {
+        TypedQuery<Pitch> typedQuery = entityManager.createQuery(
+                "SELECT p FROM Pitch p" + whereAndOrder(query, after), Pitch.class);
+        bind(typedQuery, startupId, query, after);
+        typedQuery.setMaxResults(limit);
+        return typedQuery.getResultList();
+    }
+
+    @Override
+    public Stream<Pitch> streamAll(UUID startupId, boolean favoritesOnly, int fetchSize) {
+        TypedQuery<Pitch> typedQuery = entityManager.createQuery(
+                "SELECT p FROM Pitch p WHERE p.startupId = :startupId"
+                        + (favoritesOnly ? " AND p.isFavorite = true" : "")
+                        + " ORDER BY p.createdAt DESC, p.id DESC", Pitch.class);
+        typedQuery.setParameter("startupId", startupId);
+        typedQuery.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize);
+        typedQuery.setHint(HibernateHints.HINT_READ_ONLY, true);
+        return typedQuery.getResultStream()
+                .map(pitch -> {
+                    entityManager.detach(pitch);
+                    return pitch;
+                });
+    }
+
+    @Override
+    public List<Map<String, Object>> findProjected(UUID startupId, PitchListQuery query, PitchCursor after,
+                                                   Set<PitchField> fields, long offset, int limit) {
+        Set<String> properties = new LinkedHashSet<>();
+        fields.forEach(field -> properties.add(field.getProperty()));
+        properties.add(PitchField.ID.getProperty());
+        properties.add(query.getSort().getProperty());
+
+        String select = properties.stream()
+                .map(property -> "p." + property + " AS " + property)
+                .collect(Collectors.joining(", "));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(
+                "SELECT " + select + " FROM Pitch p" + whereAndOrder(query, after), Tuple.class);
+        bind(typedQuery, startupId, query, after);
+        if (offset > 0) {
+            typedQuery.setFirstResult(Math.toIntExact(offset));
+        }
+        if (limit > 0) {
+            typedQuery.setMaxResults(limit);
+        }
+
+        return typedQuery.getResultList().stream()
+                .map(tuple -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    properties.forEach(property -> row.put(property, tuple.get(property)));
+                    return row;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static String whereAndOrder(PitchListQuery query, PitchCursor after) {
+        String property = "p." + query.getSort().getProperty();
+        boolean descending = query.getDirection() == Sort.Direction.DESC;
+        String order = descending ? " DESC" : " ASC";
+
+        StringBuilder hql = new StringBuilder(" WHERE p.startupId = :startupId");
+        if (query.isFavoritesOnly()) {
+            hql.append(" AND p.isFavorite = true");
+        }
+        if (query.getType() != null) {
+            hql.append(" AND p.type = :type");
+        }
+        if (after != null) {
+            // Prédicat de seek sur le couple (valeur de tri, id) : reprend juste après le dernier pitch vu
+            hql.append(" AND (").append(property).append(", p.id) ")
+                    .append(descending ? "<" : ">")
+                    .append(" (:afterValue, :afterId)");
+        }
+        hql.append(" ORDER BY ").append(property).append(order).append(", p.id").append(order);
+        return hql.toString();
+    }
+
+    private static void bind(Query typedQuery, UUID startupId, PitchListQuery query, PitchCursor after) {
+        typedQuery.setParameter("startupId", startupId);
+        if (query.getType() != null) {
+            typedQuery.setParameter("type", query.getType());
+        }
+        if (after != null) {
+            typedQuery.setParameter("afterValue", after.value());
+            typedQuery.setParameter("afterId", after.id());
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package ma.startup.platform.pitchservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import ma.startup.platform.pitchservice.dto.PitchResponseDTO;
+import ma.startup.platform.pitchservice.dto.PitchSearchCursor;
+import ma.startup.platform.pitchservice.dto.PitchSearchHitDTO;
+import ma.startup.platform.pitchservice.model.PitchType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.web.util.HtmlUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Recherche plein texte PostgreSQL (colonne search_vector, index GIN, configuration 'french').
+ * Les pitchs trouvés sont classés par ts_rank_cd puis par ID ; ts_headline n'est calculé
+ * que pour les lignes de la page, après la limite.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PitchSearchRepository {
+
+    // Délimiteurs neutres pour ts_headline, remplacés par <mark> après échappement HTML du texte
+    private static final String START = "⟦";
+    private static final String STOP = "⟧";
+
+    private static final String HEADLINE_OPTIONS = "StartSel=\"" + START + "\", StopSel=\"" + STOP + "\""
+            + ", MaxFragments=2, MaxWords=25, MinWords=8, FragmentDelimiter=\" … \"";
+
+    private static final String SEARCH_SQL = """
+            WITH q AS (SELECT websearch_to_tsquery('french'::regconfig, ?) AS query),
+            page AS (
+                SELECT id, rank FROM (
+                    SELECT p.id, ts_rank_cd(p.search_vector, q.query) AS rank
+                    FROM pitch_schema.pitchs p, q
+                    WHERE p.startup_id = ? AND p.search_vector @@ q.query
+                ) matches
+                %s
+                ORDER BY rank DESC, id DESC
+                LIMIT ?
+            )
+            SELECT p.id, p.startup_id, p.probleme, p.solution, p.cible, p.avantage, p.pitch_genere, p.type,
+                   p.rating, p.is_favorite, p.created_at, p.updated_at, page.rank,
+                   ts_headline('french'::regconfig,
+                               concat_ws(' … ', p.probleme, p.solution, p.cible, p.avantage, p.pitch_genere),
+                               q.query, ?) AS highlight
+            FROM page
+            JOIN pitch_schema.pitchs p ON p.id = page.id
+            CROSS JOIN q
+            ORDER BY page.rank DESC, page.id DESC
+            """;
+
+    private static final String AFTER_CURSOR = "WHERE rank < CAST(? AS real) OR (rank = CAST(? AS real) AND id < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<PitchSearchHitDTO> search(UUID startupId, String query, PitchSearchCursor after, int limit) {
+        List<Object> args = new ArrayList<>(List.of(query, startupId));
+        if (after != null) {
+            args.add(after.rank());
+            args.add(after.rank());
+            args.add(after.id());
+        }
+        args.add(limit);
+        args.add(HEADLINE_OPTIONS);
+
+        String sql = SEARCH_SQL.formatted(after != null ? AFTER_CURSOR : "");
+        return jdbcTemplate.query(sql, HIT_MAPPER, args.toArray());
+    }
+
+    private static final RowMapper<PitchSearchHitDTO> HIT_MAPPER = (rs, rowNum) -> {
+        PitchResponseDTO pitch = PitchResponseDTO.builder()
+                .id(rs.getObject("id", UUID.class))
+                .startupId(rs.getObject("startup_id", UUID.class))
+                .probleme(rs.getString("probleme"))
+                .solution(rs.getString("solution"))
+                .cible(rs.getString("cible"))
+                .avantage(rs.getString("avantage"))
+                .pitchGenere(rs.getString("pitch_genere"))
+                .type(PitchType.valueOf(rs.getString("type")))
+                .rating(rs.getObject("rating", Integer.class))
+                .isFavorite(rs.getBoolean("is_favorite"))
+                .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+                .updatedAt(toLocalDateTime(rs.getTimestamp("updated_at")))
+                .build();
+        return PitchSearchHitDTO.builder()
+                .pitch(pitch)
+                .rank(rs.getFloat("rank"))
+                .highlight(highlight(rs.getString("highlight")))
+                .build();
+    };
+
+    private static String highlight(String headline) {
+        if (headline == null) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(headline, "UTF-8")
+                .replace(START, "<mark>")
+                .replace(STOP, "</mark>");
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
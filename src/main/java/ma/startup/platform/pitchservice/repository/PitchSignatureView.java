@@ -0,0 +1,16 @@
+package ma.startup.platform.pitchservice.repository;
+
+import ma.startup.platform.pitchservice.model.PitchType;
+
+import java.util.UUID;
+
+/**
+ * Empreinte des champs saisis d'un pitch, pour l'index de similarité
+ */
+public interface PitchSignatureView {
+    UUID getId();
+
+    PitchType getType();
+
+    Long getInputSimhash();
+}
@@ -0,0 +1,18 @@
+package ma.startup.platform.pitchservice.repository;
+
+import ma.startup.platform.pitchservice.model.PitchType;
+
+import java.util.UUID;
+
+/**
+ * État d'un pitch utile aux opérations en masse et aux statistiques, sans le texte du pitch
+ */
+public interface PitchStateView {
+    UUID getId();
+
+    PitchType getType();
+
+    Boolean getIsFavorite();
+
+    Integer getRating();
+}
@@ -0,0 +1,12 @@
+package ma.startup.platform.pitchservice.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Métadonnées de version d'un pitch (requêtes conditionnelles), sans le texte du pitch
+ */
+public interface PitchVersionView {
+    Long getVersion();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,52 @@
+package ma.startup.platform.pitchservice.repository;
+
+import ma.startup.platform.pitchservice.model.StartupPitchStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface StartupPitchStatsRepository extends JpaRepository<StartupPitchStats, UUID> {
+
+    // Appliquer des variations atomiquement (aucune mise à jour perdue entre transactions concurrentes)
+    @Modifying
+    @Query("UPDATE StartupPitchStats s SET " +
+            "s.totalPitchs = s.totalPitchs + :total, " +
+            "s.favoritePitchs = s.favoritePitchs + :favorites, " +
+            "s.ratingSum = s.ratingSum + :ratingSum, " +
+            "s.ratingCount = s.ratingCount + :ratingCount, " +
+            "s.elevatorPitchs = s.elevatorPitchs + :elevator, " +
+            "s.deckPitchs = s.deckPitchs + :deck, " +
+            "s.valuePropPitchs = s.valuePropPitchs + :valueProp, " +
+            "s.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE s.startupId = :startupId")
+    int applyDelta(@Param("startupId") UUID startupId,
+                   @Param("total") long total,
+                   @Param("favorites") long favorites,
+                   @Param("ratingSum") long ratingSum,
+                   @Param("ratingCount") long ratingCount,
+                   @Param("elevator") long elevator,
+                   @Param("deck") long deck,
+                   @Param("valueProp") long valueProp);
+
+    // Créer la ligne à partir de la table des pitchs (première écriture ou première lecture d'une startup)
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value =
+            "INSERT INTO pitch_schema.startup_pitch_stats " +
+            "(startup_id, total_pitchs, favorite_pitchs, rating_sum, rating_count, " +
+            "elevator_pitchs, deck_pitchs, value_prop_pitchs, updated_at) " +
+            "SELECT :startupId, COUNT(*), " +
+            "COUNT(CASE WHEN p.is_favorite THEN 1 END), " +
+            "COALESCE(SUM(p.rating), 0), COUNT(p.rating), " +
+            "COUNT(CASE WHEN p.type = 'ELEVATOR' THEN 1 END), " +
+            "COUNT(CASE WHEN p.type = 'DECK' THEN 1 END), " +
+            "COUNT(CASE WHEN p.type = 'VALUE_PROP' THEN 1 END), " +
+            "CURRENT_TIMESTAMP " +
+            "FROM pitch_schema.pitchs p WHERE p.startup_id = :startupId " +
+            "ON CONFLICT DO NOTHING")
+    int seedFromPitchs(@Param("startupId") UUID startupId);
+}
@@ -0,0 +1,86 @@
+package ma.startup.platform.pitchservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Consommation de jetons IA par startup, jour et type de pitch (table startup_token_usage).
+ * Les compteurs sont ajoutés aux lignes existantes (upsert additif), jamais remplacés :
+ * plusieurs instances peuvent écrire les mêmes lignes.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StartupTokenUsageRepository {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO pitch_schema.startup_token_usage AS u " +
+            "(startup_id, usage_date, pitch_type, prompt_tokens, completion_tokens, calls, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (startup_id, usage_date, pitch_type) DO UPDATE SET " +
+            "prompt_tokens = u.prompt_tokens + EXCLUDED.prompt_tokens, " +
+            "completion_tokens = u.completion_tokens + EXCLUDED.completion_tokens, " +
+            "calls = u.calls + EXCLUDED.calls, " +
+            "updated_at = EXCLUDED.updated_at";
+
+    private static final String TOTALS_SQL =
+            "SELECT COALESCE(SUM(CASE WHEN usage_date = ? THEN prompt_tokens + completion_tokens END), 0) AS daily, " +
+            "COALESCE(SUM(prompt_tokens + completion_tokens), 0) AS monthly " +
+            "FROM pitch_schema.startup_token_usage " +
+            "WHERE startup_id = ? AND usage_date >= ? AND usage_date <= ?";
+
+    private static final String FIND_SINCE_SQL =
+            "SELECT startup_id, usage_date, pitch_type, prompt_tokens, completion_tokens, calls " +
+            "FROM pitch_schema.startup_token_usage " +
+            "WHERE startup_id = ? AND usage_date >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record UsageRow(UUID startupId, LocalDate day, String pitchType,
+                           long promptTokens, long completionTokens, long calls) {
+        public long totalTokens() {
+            return promptTokens + completionTokens;
+        }
+    }
+
+    public record Totals(long daily, long monthly) {
+    }
+
+    // Ajouter les variations en un seul lot JDBC
+    public void addAll(List<UsageRow> rows) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setObject(1, row.startupId());
+            ps.setDate(2, Date.valueOf(row.day()));
+            ps.setString(3, row.pitchType());
+            ps.setLong(4, row.promptTokens());
+            ps.setLong(5, row.completionTokens());
+            ps.setLong(6, row.calls());
+        });
+    }
+
+    // Jetons consommés le jour donné et depuis le début de son mois
+    public Totals totals(UUID startupId, LocalDate day) {
+        return jdbcTemplate.queryForObject(TOTALS_SQL,
+                (rs, rowNum) -> new Totals(rs.getLong("daily"), rs.getLong("monthly")),
+                Date.valueOf(day), startupId, Date.valueOf(day.withDayOfMonth(1)), Date.valueOf(day));
+    }
+
+    public List<UsageRow> findSince(UUID startupId, LocalDate from) {
+        return jdbcTemplate.query(FIND_SINCE_SQL, ROW_MAPPER, startupId, Date.valueOf(from));
+    }
+
+    private static final RowMapper<UsageRow> ROW_MAPPER = (rs, rowNum) -> new UsageRow(
+            rs.getObject("startup_id", UUID.class),
+            rs.getDate("usage_date").toLocalDate(),
+            rs.getString("pitch_type"),
+            rs.getLong("prompt_tokens"),
+            rs.getLong("completion_tokens"),
+            rs.getLong("calls")
+    );
+}
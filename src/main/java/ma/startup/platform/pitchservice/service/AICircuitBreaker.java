@@ -0,0 +1,155 @@
+package ma.startup.platform.pitchservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import ma.startup.platform.pitchservice.exception.AIUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Circuit breaker du fournisseur d'IA, sur une fenêtre glissante des N derniers appels.
+ *
+ * CLOSED : les appels passent ; au-delà du taux d'échec configuré, le circuit s'ouvre.
+ * OPEN : les appels échouent immédiatement (AIUnavailableException) pendant la durée d'ouverture.
+ * HALF_OPEN : quelques appels d'essai ; tous réussis ferment le circuit, un échec le rouvre.
+ */
+@Component
+@Slf4j
+public class AICircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final boolean[] window;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenTrials;
+
+    private State state = State.CLOSED;
+    private int position;
+    private int recorded;
+    private int failures;
+    private long openedAtNanos;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    private final LongAdder shortCircuited = new LongAdder();
+    private final LongAdder opened = new LongAdder();
+
+    public AICircuitBreaker(
+            @Value("${ai.resilience.breaker.window-size:20}") int windowSize,
+            @Value("${ai.resilience.breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${ai.resilience.breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+            @Value("${ai.resilience.breaker.open-duration-ms:30000}") long openDurationMs,
+            @Value("${ai.resilience.breaker.half-open-trials:3}") int halfOpenTrials
+    ) {
+        this.window = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMs);
+        this.halfOpenTrials = halfOpenTrials;
+    }
+
+    /**
+     * Autorise un appel ou échoue immédiatement si le circuit est ouvert
+     */
+    public synchronized void acquirePermission() {
+        if (state == State.OPEN) {
+            long elapsed = System.nanoTime() - openedAtNanos;
+            if (elapsed < openDurationNanos) {
+                shortCircuited.increment();
+                long retryAfter = TimeUnit.NANOSECONDS.toSeconds(openDurationNanos - elapsed) + 1;
+                throw new AIUnavailableException("Fournisseur IA indisponible, réessayez plus tard", retryAfter);
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsStarted >= halfOpenTrials) {
+                shortCircuited.increment();
+                throw new AIUnavailableException("Fournisseur IA en cours de rétablissement", 1);
+            }
+            trialsStarted++;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            trialsSucceeded++;
+            if (trialsSucceeded >= halfOpenTrials) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && recorded >= minimumCalls
+                && (double) failures / recorded >= failureRateThreshold) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    /**
+     * Libère une place d'essai sans compter l'appel (ex. erreur client sans rapport avec la santé du fournisseur)
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && trialsStarted > 0) {
+            trialsStarted--;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("state", state.name());
+        stats.put("failureRate", recorded == 0 ? 0.0 : (double) failures / recorded);
+        stats.put("recordedCalls", recorded);
+        stats.put("timesOpened", opened.sum());
+        stats.put("shortCircuited", shortCircuited.sum());
+        return stats;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == window.length) {
+            if (window[position]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[position] = failure;
+        if (failure) {
+            failures++;
+        }
+        position = (position + 1) % window.length;
+    }
+
+    private void transitionTo(State next) {
+        log.warn("Circuit breaker IA : {} -> {}", state, next);
+        state = next;
+        trialsStarted = 0;
+        trialsSucceeded = 0;
+        if (next == State.OPEN) {
+            openedAtNanos = System.nanoTime();
+            opened.increment();
+        }
+        if (next == State.CLOSED) {
+            position = 0;
+            recorded = 0;
+            failures = 0;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package ma.startup.platform.pitchservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import ma.startup.platform.pitchservice.exception.AIException;
+import ma.startup.platform.pitchservice.exception.AIRateLimitException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Limiteur adaptatif (AIMD) du nombre d'appels simultanés vers le fournisseur d'IA.
+ *
+ * - Succès rapide : la limite augmente d'environ 1 par fenêtre (+1/limite par appel)
+ * - Succès lent (au-delà du seuil de latence) ou erreur serveur : limite x 0.9
+ * - HTTP 429 : limite x 0.5 et blocage de tous les appels jusqu'à l'expiration du Retry-After
+ *
+ * Les appels au-delà de la limite attendent dans une file bornée, jusqu'à une échéance,
+ * au lieu d'échouer immédiatement.
+ */
+@Component
+@Slf4j
+public class AIConcurrencyLimiter {
+
+    private static final Pattern DURATION_PART = Pattern.compile("(\\d+(?:\\.\\d+)?)(ms|h|m|s)");
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueue;
+    private final long maxWaitMs;
+    private final long latencyThresholdMs;
+
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    private long blockedUntilNanos = System.nanoTime();
+
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    public AIConcurrencyLimiter(
+            @Value("${ai.limiter.initial-limit:4}") int initialLimit,
+            @Value("${ai.limiter.min-limit:1}") int minLimit,
+            @Value("${ai.limiter.max-limit:32}") int maxLimit,
+            @Value("${ai.limiter.max-queue:100}") int maxQueue,
+            @Value("${ai.limiter.max-wait-ms:15000}") long maxWaitMs,
+            @Value("${ai.limiter.latency-threshold-ms:5000}") long latencyThresholdMs
+    ) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueue = maxQueue;
+        this.maxWaitMs = maxWaitMs;
+        this.latencyThresholdMs = latencyThresholdMs;
+    }
+
+    /**
+     * Échéance d'attente pour un appel qui commence maintenant (partagée entre ses tentatives)
+     */
+    public long newDeadline() {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+    }
+
+    /**
+     * Attend une place libre ; retourne l'instant de départ de l'appel (à repasser à on*)
+     */
+    public long acquire(long deadlineNanos) {
+        lock.lock();
+        try {
+            if (waiting >= maxQueue) {
+                rejected.increment();
+                throw new AIRateLimitException("File d'attente IA pleine", retryAfterSeconds());
+            }
+            waiting++;
+            try {
+                while (true) {
+                    long now = System.nanoTime();
+                    if (inFlight < (int) limit && now - blockedUntilNanos >= 0) {
+                        inFlight++;
+                        acquired.increment();
+                        return now;
+                    }
+                    long remaining = deadlineNanos - now;
+                    if (remaining <= 0) {
+                        rejected.increment();
+                        throw new AIRateLimitException("Fournisseur IA saturé, réessayez plus tard",
+                                retryAfterSeconds());
+                    }
+                    long blocked = blockedUntilNanos - now;
+                    changed.awaitNanos(blocked > 0 ? Math.min(blocked, remaining) : remaining);
+                }
+            } finally {
+                waiting--;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AIException("Attente d'une place d'appel IA interrompue", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onSuccess(long startNanos, HttpHeaders headers) {
+        long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        lock.lock();
+        try {
+            inFlight--;
+            if (latencyMs > latencyThresholdMs) {
+                limit = Math.max(minLimit, limit * 0.9);
+            } else {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            applyQuotaHeaders(headers);
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onRateLimited(long startNanos, HttpHeaders headers) {
+        rateLimited.increment();
+        lock.lock();
+        try {
+            inFlight--;
+            limit = Math.max(minLimit, limit * 0.5);
+            Duration retryAfter = retryAfter(headers);
+            blockUntil(System.nanoTime() + retryAfter.toNanos());
+            log.warn("Groq 429 : limite réduite à {}, appels suspendus pendant {} ms",
+                    (int) limit, retryAfter.toMillis());
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onError(long startNanos) {
+        errors.increment();
+        lock.lock();
+        try {
+            inFlight--;
+            limit = Math.max(minLimit, limit * 0.9);
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Libère la place sans ajuster la limite (erreur client, sans rapport avec la charge)
+     */
+    public void onIgnored(long startNanos) {
+        lock.lock();
+        try {
+            inFlight--;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        lock.lock();
+        try {
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("limit", (int) limit);
+            stats.put("inFlight", inFlight);
+            stats.put("waiting", waiting);
+            stats.put("blockedForMs", Math.max(0, TimeUnit.NANOSECONDS.toMillis(blockedUntilNanos - System.nanoTime())));
+            stats.put("acquired", acquired.sum());
+            stats.put("rejected", rejected.sum());
+            stats.put("rateLimited", rateLimited.sum());
+            stats.put("errors", errors.sum());
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Quota épuisé (x-ratelimit-remaining-* = 0) : suspend les appels jusqu'à la réinitialisation annoncée
+     */
+    private void applyQuotaHeaders(HttpHeaders headers) {
+        if (headers == null) {
+            return;
+        }
+        for (String kind : new String[]{"requests", "tokens"}) {
+            String remaining = headers.getFirst("x-ratelimit-remaining-" + kind);
+            String reset = headers.getFirst("x-ratelimit-reset-" + kind);
+            if ("0".equals(remaining) && reset != null) {
+                blockUntil(System.nanoTime() + parseDuration(reset).toNanos());
+            }
+        }
+    }
+
+    private void blockUntil(long untilNanos) {
+        if (untilNanos - blockedUntilNanos > 0) {
+            blockedUntilNanos = untilNanos;
+        }
+    }
+
+    private long retryAfterSeconds() {
+        long blockedMs = TimeUnit.NANOSECONDS.toMillis(blockedUntilNanos - System.nanoTime());
+        return Math.max(1, (blockedMs + 999) / 1000);
+    }
+
+    private static Duration retryAfter(HttpHeaders headers) {
+        if (headers != null) {
+            String retryAfter = headers.getFirst(HttpHeaders.RETRY_AFTER);
+            if (retryAfter != null) {
+                try {
+                    return Duration.ofMillis((long) (Double.parseDouble(retryAfter.trim()) * 1000));
+                } catch (NumberFormatException ignored) {
+                    // Format date HTTP : on se rabat sur les en-têtes x-ratelimit-reset-*
+                }
+            }
+            String reset = headers.getFirst("x-ratelimit-reset-requests");
+            if (reset != null) {
+                return parseDuration(reset);
+            }
+        }
+        return Duration.ofSeconds(1);
+    }
+
+    /**
+     * Durées au format Groq : "7.66s", "2m59.56s", "1h2m3s", "250ms"
+     */
+    static Duration parseDuration(String value) {
+        Matcher matcher = DURATION_PART.matcher(value.trim());
+        double millis = 0;
+        boolean matched = false;
+        while (matcher.find()) {
+            matched = true;
+            double amount = Double.parseDouble(matcher.group(1));
+            switch (matcher.group(2)) {
+                case "h" -> millis += amount * 3_600_000;
+                case "m" -> millis += amount * 60_000;
+                case "s" -> millis += amount * 1_000;
+                default -> millis += amount;
+            }
+        }
+        return matched ? Duration.ofMillis((long) millis) : Duration.ofSeconds(1);
+    }
+}
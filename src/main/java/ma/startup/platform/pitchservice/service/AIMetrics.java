@@ -0,0 +1,74 @@
+package ma.startup.platform.pitchservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import ma.startup.platform.pitchservice.exception.AIRateLimitException;
+import ma.startup.platform.pitchservice.exception.AIUnavailableException;
+import ma.startup.platform.pitchservice.model.PitchType;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Métriques Micrometer des appels IA.
+ *
+ * pitch.ai.calls : latence vue par l'appelant, par méthode d'AIService, type de pitch et issue
+ * (les percentiles p50/p95/p99 et l'histogramme sont configurés dans application.properties).
+ * pitch.ai.tokens : jetons facturés par Groq (voir TokenUsage), par modèle et par nature (prompt / completion).
+ */
+@Component
+public class AIMetrics {
+
+    public static final String CALLS = "pitch.ai.calls";
+    public static final String TOKENS = "pitch.ai.tokens";
+
+    private static final String NO_TYPE = "NONE";
+
+    private final MeterRegistry registry;
+
+    public AIMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public <T> T time(String method, PitchType type, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "error";
+        try {
+            T result = call.get();
+            outcome = "success";
+            return result;
+        } catch (AIRateLimitException e) {
+            outcome = "rate_limited";
+            throw e;
+        } catch (AIUnavailableException e) {
+            outcome = "unavailable";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(CALLS)
+                    .description("Latence des appels IA")
+                    .tag("method", method)
+                    .tag("type", type != null ? type.name() : NO_TYPE)
+                    .tag("outcome", outcome)
+                    .register(registry));
+        }
+    }
+
+    public void recordUsage(String model, TokenUsage usage) {
+        increment(model, "prompt", usage.promptTokens());
+        increment(model, "completion", usage.completionTokens());
+    }
+
+    private void increment(String model, String kind, long tokens) {
+        if (tokens <= 0) {
+            return;
+        }
+        Counter.builder(TOKENS)
+                .description("Jetons consommés par les appels Groq")
+                .baseUnit("tokens")
+                .tag("model", model)
+                .tag("kind", kind)
+                .register(registry)
+                .increment(tokens);
+    }
+}
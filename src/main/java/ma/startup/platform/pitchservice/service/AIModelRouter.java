@@ -0,0 +1,211 @@
+package ma.startup.platform.pitchservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import ma.startup.platform.pitchservice.model.PitchType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Choix du modèle d'IA par requête, selon le type de pitch et la santé observée des modèles.
+ *
+ * Chaque type de pitch a une liste ordonnée de modèles (petit modèle instantané pour ELEVATOR/VALUE_PROP,
+ * modèle plus grand pour DECK, etc.). Le premier modèle respectant le SLO (p99 de latence et taux d'erreur
+ * sur une fenêtre glissante) est retenu ; si aucun ne le respecte, on prend celui dont le p99 est le plus bas.
+ * Une petite fraction du trafic continue d'aller vers un modèle dégradé pour détecter son rétablissement.
+ */
+@Component
+@Slf4j
+public class AIModelRouter {
+
+    private static final int SAMPLES_PER_MODEL = 256;
+
+    private final Map<PitchType, List<String>> tiers = new EnumMap<>(PitchType.class);
+    private final List<String> defaultTier;
+
+    private final long sloP99Ms;
+    private final double sloErrorRate;
+    private final long windowNanos;
+    private final int minSamples;
+    private final double probeRatio;
+
+    private final Map<String, ModelStats> statsByModel = new ConcurrentHashMap<>();
+
+    public AIModelRouter(
+            @Value("${ai.routing.tiers.elevator:${groq.model:llama-3.1-8b-instant}}") String elevatorTier,
+            @Value("${ai.routing.tiers.deck:${groq.model:llama-3.1-8b-instant}}") String deckTier,
+            @Value("${ai.routing.tiers.value-prop:${groq.model:llama-3.1-8b-instant}}") String valuePropTier,
+            @Value("${ai.routing.tiers.default:${groq.model:llama-3.1-8b-instant}}") String defaultTier,
+            @Value("${ai.routing.slo.p99-ms:8000}") long sloP99Ms,
+            @Value("${ai.routing.slo.error-rate:0.2}") double sloErrorRate,
+            @Value("${ai.routing.window-seconds:300}") long windowSeconds,
+            @Value("${ai.routing.min-samples:20}") int minSamples,
+            @Value("${ai.routing.probe-ratio:0.05}") double probeRatio
+    ) {
+        tiers.put(PitchType.ELEVATOR, parseTier(elevatorTier));
+        tiers.put(PitchType.DECK, parseTier(deckTier));
+        tiers.put(PitchType.VALUE_PROP, parseTier(valuePropTier));
+        this.defaultTier = parseTier(defaultTier);
+        this.sloP99Ms = sloP99Ms;
+        this.sloErrorRate = sloErrorRate;
+        this.windowNanos = TimeUnit.SECONDS.toNanos(windowSeconds);
+        this.minSamples = minSamples;
+        this.probeRatio = probeRatio;
+    }
+
+    /**
+     * Modèle à utiliser pour ce type de pitch (null : améliorations, suggestions...)
+     */
+    public String select(PitchType type) {
+        List<String> tier = type == null ? defaultTier : tiers.getOrDefault(type, defaultTier);
+        String primary = tier.get(0);
+        if (tier.size() == 1) {
+            return primary;
+        }
+
+        long now = System.nanoTime();
+        String best = null;
+        long bestP99 = Long.MAX_VALUE;
+        for (String model : tier) {
+            Snapshot snapshot = stats(model).snapshot(now, windowNanos);
+            if (isHealthy(snapshot)) {
+                if (!model.equals(primary) && ThreadLocalRandom.current().nextDouble() < probeRatio) {
+                    // Sonde : le modèle préféré reçoit encore un peu de trafic pour mesurer son rétablissement
+                    return primary;
+                }
+                if (!model.equals(primary)) {
+                    log.debug("Modèle {} hors SLO, bascule sur {}", primary, model);
+                }
+                return model;
+            }
+            if (snapshot.p99Ms() < bestP99) {
+                bestP99 = snapshot.p99Ms();
+                best = model;
+            }
+        }
+        return best != null ? best : primary;
+    }
+
+    public void onSuccess(String model, long latencyMs) {
+        stats(model).record(System.nanoTime(), latencyMs, false);
+    }
+
+    /**
+     * Erreur du fournisseur pour ce modèle (5xx, timeout, 429) ; les erreurs client ne sont pas comptées
+     */
+    public void onFailure(String model, long latencyMs) {
+        stats(model).record(System.nanoTime(), latencyMs, true);
+    }
+
+    public Map<String, Object> stats() {
+        long now = System.nanoTime();
+        Map<String, Object> stats = new LinkedHashMap<>();
+
+        Map<String, Object> routes = new LinkedHashMap<>();
+        tiers.forEach((type, tier) -> routes.put(type.name(), tier));
+        routes.put("DEFAULT", defaultTier);
+        stats.put("tiers", routes);
+
+        Map<String, Object> models = new LinkedHashMap<>();
+        statsByModel.forEach((model, modelStats) -> {
+            Snapshot snapshot = modelStats.snapshot(now, windowNanos);
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("samples", snapshot.samples());
+            entry.put("p50Ms", snapshot.p50Ms());
+            entry.put("p99Ms", snapshot.p99Ms());
+            entry.put("errorRate", snapshot.errorRate());
+            entry.put("healthy", isHealthy(snapshot));
+            models.put(model, entry);
+        });
+        stats.put("models", models);
+        stats.put("sloP99Ms", sloP99Ms);
+        stats.put("sloErrorRate", sloErrorRate);
+        return stats;
+    }
+
+    /**
+     * Sans assez d'échantillons récents, un modèle est présumé sain
+     */
+    private boolean isHealthy(Snapshot snapshot) {
+        if (snapshot.samples() < minSamples) {
+            return true;
+        }
+        return snapshot.p99Ms() <= sloP99Ms && snapshot.errorRate() <= sloErrorRate;
+    }
+
+    private ModelStats stats(String model) {
+        return statsByModel.computeIfAbsent(model, m -> new ModelStats());
+    }
+
+    private static List<String> parseTier(String tier) {
+        List<String> models = Arrays.stream(tier.split(","))
+                .map(String::trim)
+                .filter(model -> !model.isEmpty())
+                .distinct()
+                .toList();
+        if (models.isEmpty()) {
+            throw new IllegalArgumentException("Liste de modèles vide pour le routage IA");
+        }
+        return models;
+    }
+
+    record Snapshot(int samples, long p50Ms, long p99Ms, double errorRate) {
+    }
+
+    /**
+     * Derniers appels d'un modèle (tampon circulaire) ; seuls ceux de la fenêtre de temps sont pris en compte
+     */
+    private static final class ModelStats {
+
+        private final long[] timestamps = new long[SAMPLES_PER_MODEL];
+        private final long[] latencies = new long[SAMPLES_PER_MODEL];
+        private final boolean[] failures = new boolean[SAMPLES_PER_MODEL];
+        private int position;
+        private int count;
+
+        synchronized void record(long nowNanos, long latencyMs, boolean failure) {
+            timestamps[position] = nowNanos;
+            latencies[position] = latencyMs;
+            failures[position] = failure;
+            position = (position + 1) % SAMPLES_PER_MODEL;
+            count = Math.min(count + 1, SAMPLES_PER_MODEL);
+        }
+
+        synchronized Snapshot snapshot(long nowNanos, long windowNanos) {
+            long[] recent = new long[count];
+            int samples = 0;
+            int errors = 0;
+            for (int i = 0; i < count; i++) {
+                if (nowNanos - timestamps[i] > windowNanos) {
+                    continue;
+                }
+                recent[samples++] = latencies[i];
+                if (failures[i]) {
+                    errors++;
+                }
+            }
+            if (samples == 0) {
+                return new Snapshot(0, 0, 0, 0.0);
+            }
+            Arrays.sort(recent, 0, samples);
+            return new Snapshot(
+                    samples,
+                    recent[percentileIndex(0.50, samples)],
+                    recent[percentileIndex(0.99, samples)],
+                    (double) errors / samples
+            );
+        }
+
+        private static int percentileIndex(double percentile, int samples) {
+            return Math.max(0, (int) Math.ceil(percentile * samples) - 1);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package ma.startup.platform.pitchservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import ma.startup.platform.pitchservice.exception.AIException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Résilience des appels amont vers le fournisseur d'IA :
+ * circuit breaker, nouvelles tentatives avec backoff exponentiel et jitter, requêtes couvertes (hedging).
+ *
+ * Seules les erreurs transitoires (5xx, timeouts, erreurs réseau) sont retentées et comptent
+ * comme des échecs pour le breaker ; les erreurs client et les limitations de débit sont relancées telles quelles.
+ */
+@Component
+@Slf4j
+public class AIResilience {
+
+    private static final int LATENCY_SAMPLES = 200;
+    private static final int MIN_SAMPLES_FOR_P95 = 20;
+
+    private final AICircuitBreaker circuitBreaker;
+    private final ThreadPoolTaskExecutor hedgeExecutor;
+
+    private final int maxAttempts;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+    private final boolean hedgingEnabled;
+    private final long hedgeMinDelayMs;
+
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private int latencyPosition;
+    private int latencyCount;
+
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    public AIResilience(
+            AICircuitBreaker circuitBreaker,
+            @Qualifier("hedgeExecutor") ThreadPoolTaskExecutor hedgeExecutor,
+            @Value("${ai.resilience.retry.max-attempts:3}") int maxAttempts,
+            @Value("${ai.resilience.retry.base-backoff-ms:200}") long baseBackoffMs,
+            @Value("${ai.resilience.retry.max-backoff-ms:2000}") long maxBackoffMs,
+            @Value("${ai.resilience.hedge.enabled:false}") boolean hedgingEnabled,
+            @Value("${ai.resilience.hedge.min-delay-ms:2000}") long hedgeMinDelayMs
+    ) {
+        this.circuitBreaker = circuitBreaker;
+        this.hedgeExecutor = hedgeExecutor;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMs = baseBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.hedgingEnabled = hedgingEnabled;
+        this.hedgeMinDelayMs = hedgeMinDelayMs;
+    }
+
+    /**
+     * Appel complet : breaker, puis tentatives (éventuellement couvertes) avec backoff entre elles
+     */
+    public String execute(Supplier<String> call) {
+        int attempt = 0;
+        while (true) {
+            circuitBreaker.acquirePermission();
+            try {
+                String result = hedgingEnabled ? hedged(call) : timed(call);
+                circuitBreaker.onSuccess();
+                return result;
+            } catch (RuntimeException e) {
+                if (!isTransient(e)) {
+                    circuitBreaker.onIgnored();
+                    throw e;
+                }
+                circuitBreaker.onFailure();
+                attempt++;
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                retries.increment();
+                long backoff = backoffMs(attempt);
+                log.warn("Erreur transitoire IA ({}), nouvelle tentative {}/{} dans {} ms",
+                        e.getMessage(), attempt + 1, maxAttempts, backoff);
+                sleep(backoff);
+            }
+        }
+    }
+
+    /**
+     * Appel unique protégé par le breaker, sans nouvelle tentative ni hedging (ex. streaming déjà commencé)
+     */
+    public String executeOnce(Supplier<String> call) {
+        circuitBreaker.acquirePermission();
+        try {
+            String result = call.get();
+            circuitBreaker.onSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onIgnored();
+            }
+            throw e;
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new HashMap<>(circuitBreaker.stats());
+        stats.put("retries", retries.sum());
+        stats.put("hedgingEnabled", hedgingEnabled);
+        stats.put("hedges", hedges.sum());
+        stats.put("hedgeWins", hedgeWins.sum());
+        stats.put("p95LatencyMs", p95LatencyMs());
+        return stats;
+    }
+
+    /**
+     * Lance la requête ; si elle dépasse le p95 observé, lance une seconde requête identique
+     * et retourne la première réponse réussie. La requête perdante est annulée.
+     */
+    private String hedged(Supplier<String> call) {
+        CompletionService<String> race = new ExecutorCompletionService<>(hedgeExecutor.getThreadPoolExecutor());
+        Future<String> primary;
+        try {
+            primary = race.submit(() -> timed(call));
+        } catch (RejectedExecutionException e) {
+            return timed(call);
+        }
+
+        Future<String> hedge = null;
+        try {
+            Future<String> first = race.poll(hedgeDelayMs(), TimeUnit.MILLISECONDS);
+            if (first != null) {
+                return first.get();
+            }
+
+            try {
+                hedge = race.submit(() -> timed(call));
+                hedges.increment();
+            } catch (RejectedExecutionException e) {
+                return primary.get();
+            }
+
+            Future<String> winner = race.take();
+            try {
+                String result = winner.get();
+                if (winner == hedge) {
+                    hedgeWins.increment();
+                }
+                return result;
+            } catch (ExecutionException firstFailure) {
+                // La première à terminer a échoué : on attend l'autre
+                return race.take().get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new AIException("Erreur appel IA", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AIException("Appel IA interrompu", e);
+        } finally {
+            primary.cancel(true);
+            if (hedge != null) {
+                hedge.cancel(true);
+            }
+        }
+    }
+
+    private String timed(Supplier<String> call) {
+        long start = System.nanoTime();
+        String result = call.get();
+        recordLatency(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return result;
+    }
+
+    private synchronized void recordLatency(long latencyMs) {
+        latencies[latencyPosition] = latencyMs;
+        latencyPosition = (latencyPosition + 1) % LATENCY_SAMPLES;
+        latencyCount = Math.min(latencyCount + 1, LATENCY_SAMPLES);
+    }
+
+    private synchronized long p95LatencyMs() {
+        if (latencyCount < MIN_SAMPLES_FOR_P95) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(latencies, latencyCount);
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(0.95 * latencyCount) - 1];
+    }
+
+    private long hedgeDelayMs() {
+        return Math.max(hedgeMinDelayMs, p95LatencyMs());
+    }
+
+    /**
+     * Backoff exponentiel avec "full jitter" : aléatoire entre 0 et min(max, base * 2^(tentative-1))
+     */
+    private long backoffMs(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AIException("Nouvelle tentative IA interrompue", e);
+        }
+    }
+
+    /**
+     * Erreur transitoire : 5xx, timeout ou erreur réseau, quelle que soit la profondeur dans la chaîne des causes.
+     * Une déconnexion du client SSE n'est pas une erreur du fournisseur.
+     */
+    public static boolean isTransient(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof UncheckedIOException) {
+                return false;
+            }
+            if (t instanceof HttpServerErrorException
+                    || t instanceof ResourceAccessException
+                    || t instanceof IOException) {
+                return true;
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,181 @@
+package ma.startup.platform.pitchservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import ma.startup.platform.pitchservice.model.AIResponseCacheEntry;
+import ma.startup.platform.pitchservice.model.PitchType;
+import ma.startup.platform.pitchservice.repository.AIResponseCacheRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache à deux niveaux des réponses IA, adressé par contenu.
+ * Niveau 1 : LRU en mémoire (Caffeine) ; niveau 2 : table pitch_schema.ai_response_cache.
+ * Une erreur sur le niveau base de données n'empêche jamais la génération.
+ */
+@Component
+@Slf4j
+public class AIResponseCache {
+
+    private final AIResponseCacheRepository repository;
+    private final Cache<String, CachedResponse> memory;
+    private final Map<PitchType, Duration> ttlByType = new HashMap<>();
+    private final Duration defaultTtl;
+
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder databaseHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypasses = new LongAdder();
+
+    public AIResponseCache(
+            AIResponseCacheRepository repository,
+            @Value("${ai.cache.memory.max-size:1000}") long maxSize,
+            @Value("${ai.cache.ttl-minutes.elevator:1440}") long elevatorTtl,
+            @Value("${ai.cache.ttl-minutes.deck:1440}") long deckTtl,
+            @Value("${ai.cache.ttl-minutes.value-prop:1440}") long valuePropTtl,
+            @Value("${ai.cache.ttl-minutes.default:60}") long defaultTtl
+    ) {
+        this.repository = repository;
+        this.ttlByType.put(PitchType.ELEVATOR, Duration.ofMinutes(elevatorTtl));
+        this.ttlByType.put(PitchType.DECK, Duration.ofMinutes(deckTtl));
+        this.ttlByType.put(PitchType.VALUE_PROP, Duration.ofMinutes(valuePropTtl));
+        this.defaultTtl = Duration.ofMinutes(defaultTtl);
+        this.memory = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+                        return Math.max(0, Duration.between(LocalDateTime.now(), value.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse value, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Calcule la clé de cache : SHA-256 de (modèle, prompt normalisé, temperature, max_tokens)
+     */
+    public String key(String model, String prompt, double temperature, int maxTokens) {
+        String material = model + '\u0000' + normalize(prompt) + '\u0000' + temperature + '\u0000' + maxTokens;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(material.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    public Optional<String> get(String key) {
+        CachedResponse cached = memory.getIfPresent(key);
+        if (cached != null) {
+            memoryHits.increment();
+            return Optional.of(cached.response());
+        }
+
+        try {
+            Optional<AIResponseCacheEntry> entry =
+                    repository.findByCacheKeyAndExpiresAtAfter(key, LocalDateTime.now());
+            if (entry.isPresent()) {
+                databaseHits.increment();
+                memory.put(key, new CachedResponse(entry.get().getResponse(), entry.get().getExpiresAt()));
+                return Optional.of(entry.get().getResponse());
+            }
+        } catch (Exception e) {
+            log.warn("Lecture du cache IA en base impossible: {}", e.getMessage());
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public void put(String key, String model, PitchType type, String response) {
+        LocalDateTime expiresAt = LocalDateTime.now().plus(ttlFor(type));
+        memory.put(key, new CachedResponse(response, expiresAt));
+
+        try {
+            repository.save(AIResponseCacheEntry.builder()
+                    .cacheKey(key)
+                    .model(model)
+                    .pitchType(type)
+                    .response(response)
+                    .expiresAt(expiresAt)
+                    .build());
+        } catch (Exception e) {
+            log.warn("Écriture du cache IA en base impossible: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Compte une demande de régénération qui contourne volontairement le cache
+     */
+    public void recordBypass() {
+        bypasses.increment();
+    }
+
+    public Map<String, Object> stats() {
+        long memory = memoryHits.sum();
+        long database = databaseHits.sum();
+        long miss = misses.sum();
+        long lookups = memory + database + miss;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("memoryHits", memory);
+        stats.put("databaseHits", database);
+        stats.put("misses", miss);
+        stats.put("bypasses", bypasses.sum());
+        stats.put("hitRatio", lookups == 0 ? 0.0 : (double) (memory + database) / lookups);
+        stats.put("memorySize", this.memory.estimatedSize());
+        return stats;
+    }
+
+    @Scheduled(fixedDelayString = "${ai.cache.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        try {
+            int deleted = repository.deleteExpired(LocalDateTime.now());
+            if (deleted > 0) {
+                log.info("Cache IA: {} réponses expirées supprimées", deleted);
+            }
+        } catch (Exception e) {
+            log.warn("Purge du cache IA impossible: {}", e.getMessage());
+        }
+    }
+
+    private Duration ttlFor(PitchType type) {
+        return type == null ? defaultTtl : ttlByType.getOrDefault(type, defaultTtl);
+    }
+
+    private static String normalize(String prompt) {
+        return prompt.replace("\r\n", "\n")
+                .replaceAll("[ \\t]+", " ")
+                .replaceAll(" ?\n ?", "\n")
+                .trim();
+    }
+
+    private record CachedResponse(String response, LocalDateTime expiresAt) {
+    }
+}
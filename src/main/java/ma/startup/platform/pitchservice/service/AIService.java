@@ -3,6 +3,8 @@ package ma.startup.platform.pitchservice.service;
 import ma.startup.platform.pitchservice.dto.StartupDTO;
 import ma.startup.platform.pitchservice.model.PitchType;
 
+import java.util.function.Consumer;
+
 /**
  * Interface générique pour les services d'IA
  * Permet de changer facilement de provider (Gemini -> HuggingFace -> OpenAI, etc.)
@@ -20,15 +22,55 @@ public interface AIService {
      * @param type Le type de pitch à générer
      * @return Le pitch généré par l'IA
      */
-    String generatePitch(
+    default String generatePitch(
             String probleme,
             String solution,
             String cible,
             String avantage,
             StartupDTO startup,
             PitchType type
+    ) {
+        return generatePitch(probleme, solution, cible, avantage, startup, type, false);
+    }
+
+    /**
+     * Génère un pitch, en ignorant éventuellement les réponses déjà en cache
+     *
+     * @param bypassCache true pour forcer une nouvelle génération ("régénérer")
+     * @return Le pitch généré par l'IA
+     */
+    String generatePitch(
+            String probleme,
+            String solution,
+            String cible,
+            String avantage,
+            StartupDTO startup,
+            PitchType type,
+            boolean bypassCache
     );
 
+    /**
+     * Génère un pitch en transmettant les fragments de texte au fur et à mesure de leur production.
+     * Par défaut, le pitch complet est généré puis transmis en un seul fragment.
+     *
+     * @param onToken Reçoit chaque fragment dès qu'il est disponible
+     * @return Le pitch complet, nettoyé, une fois le flux terminé
+     */
+    default String streamPitch(
+            String probleme,
+            String solution,
+            String cible,
+            String avantage,
+            StartupDTO startup,
+            PitchType type,
+            boolean bypassCache,
+            Consumer<String> onToken
+    ) {
+        String pitch = generatePitch(probleme, solution, cible, avantage, startup, type, bypassCache);
+        onToken.accept(pitch);
+        return pitch;
+    }
+
     /**
      * Améliore un pitch existant selon des suggestions
      *
@@ -36,7 +78,18 @@ public interface AIService {
      * @param suggestions Les suggestions d'amélioration
      * @return Le pitch amélioré
      */
-    String improvePitch(String pitchExistant, String suggestions);
+    default String improvePitch(String pitchExistant, String suggestions) {
+        return improvePitch(pitchExistant, suggestions, null, null);
+    }
+
+    /**
+     * Améliore un pitch existant, en imputant les jetons consommés (et le quota) à la startup
+     *
+     * @param startup La startup à qui imputer la consommation, null si l'appel n'est pas attribué
+     * @param type Le type du pitch amélioré, null si inconnu
+     * @return Le pitch amélioré
+     */
+    String improvePitch(String pitchExistant, String suggestions, StartupDTO startup, PitchType type);
 
     /**
      * Génère des suggestions d'amélioration pour un pitch
@@ -44,5 +97,15 @@ public interface AIService {
      * @param pitch Le pitch à analyser
      * @return Les suggestions d'amélioration
      */
-    String generateSuggestions(String pitch);
+    default String generateSuggestions(String pitch) {
+        return generateSuggestions(pitch, null);
+    }
+
+    /**
+     * Génère des suggestions, en imputant les jetons consommés à la startup
+     *
+     * @param startup La startup à qui imputer la consommation, null si l'appel n'est pas attribué
+     * @return Les suggestions d'amélioration
+     */
+    String generateSuggestions(String pitch, StartupDTO startup);
 }
@@ -0,0 +1,149 @@
+package ma.startup.platform.pitchservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import ma.startup.platform.pitchservice.exception.AIException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalescence des appels IA identiques en cours ("single-flight").
+ *
+ * Le premier appelant pour une clé lance l'appel amont sur un pool dédié ; les appelants suivants
+ * attendent le même résultat (ou la même exception). Si tous les appelants abandonnent
+ * (interruption ou délai d'attente dépassé), l'appel amont est annulé.
+ */
+@Component
+@Slf4j
+public class AISingleFlight {
+
+    private final ConcurrentHashMap<String, Call> inFlight = new ConcurrentHashMap<>();
+    private final AsyncTaskExecutor executor;
+    private final long maxWaitMs;
+
+    private final LongAdder upstreamCalls = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+
+    public AISingleFlight(
+            @Qualifier("aiExecutor") AsyncTaskExecutor executor,
+            @Value("${ai.single-flight.max-wait-ms:90000}") long maxWaitMs
+    ) {
+        this.executor = executor;
+        this.maxWaitMs = maxWaitMs;
+    }
+
+    public String execute(String key, Supplier<String> upstream) {
+        Call call = join(key, upstream);
+        try {
+            return call.result.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new AIException("Erreur appel IA", e.getCause());
+        } catch (CancellationException e) {
+            throw new AIException("Appel IA annulé", e);
+        } catch (TimeoutException e) {
+            throw new AIException("Délai d'attente de la réponse IA dépassé");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AIException("Attente de la réponse IA interrompue", e);
+        } finally {
+            call.leave();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("inFlight", inFlight.size());
+        stats.put("upstreamCalls", upstreamCalls.sum());
+        stats.put("coalesced", coalesced.sum());
+        stats.put("cancelled", cancelled.sum());
+        return stats;
+    }
+
+    private Call join(String key, Supplier<String> upstream) {
+        while (true) {
+            Call created = new Call(key);
+            Call existing = inFlight.putIfAbsent(key, created);
+
+            if (existing == null) {
+                start(created, upstream);
+                return created;
+            }
+            if (existing.tryJoin()) {
+                coalesced.increment();
+                log.debug("Appel IA identique en cours, résultat partagé");
+                return existing;
+            }
+            // L'appel existant vient d'être annulé : on le retire et on recommence
+            inFlight.remove(key, existing);
+        }
+    }
+
+    private void start(Call call, Supplier<String> upstream) {
+        upstreamCalls.increment();
+        try {
+            call.task = executor.submit(() -> {
+                try {
+                    call.result.complete(upstream.get());
+                } catch (Throwable t) {
+                    call.result.completeExceptionally(t);
+                } finally {
+                    inFlight.remove(call.key, call);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(call.key, call);
+            call.result.completeExceptionally(new AIException("Trop d'appels IA simultanés", e));
+        }
+    }
+
+    private final class Call {
+        private final String key;
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+        private volatile Future<?> task;
+        private int waiters = 1;
+        private boolean abandoned;
+
+        private Call(String key) {
+            this.key = key;
+        }
+
+        private synchronized boolean tryJoin() {
+            if (abandoned) {
+                return false;
+            }
+            waiters++;
+            return true;
+        }
+
+        private synchronized void leave() {
+            waiters--;
+            if (waiters == 0 && !result.isDone()) {
+                abandoned = true;
+                cancelled.increment();
+                inFlight.remove(key, this);
+                if (task != null) {
+                    task.cancel(true);
+                }
+                result.cancel(false);
+                log.info("Appel IA annulé : plus aucun appelant en attente");
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package ma.startup.platform.pitchservice.service;
+
+import ma.startup.platform.pitchservice.dto.PitchImportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface PitchExportService {
+
+    /**
+     * Préparer l'export des pitchs de la startup de l'utilisateur : l'identité est résolue ici,
+     * avant toute écriture, pour qu'une erreur d'authentification donne encore une réponse d'erreur normale.
+     * Les formats et noms de champs sont ceux de l'import.
+     */
+    PitchExport open(String authToken, PitchImportFormat format, boolean favoritesOnly);
+
+    @FunctionalInterface
+    interface PitchExport {
+
+        /**
+         * Écrire les pitchs au fil de la lecture, sans les garder en mémoire ; retourne le nombre de lignes
+         */
+        long writeTo(OutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,15 @@
+package ma.startup.platform.pitchservice.service;
+
+import ma.startup.platform.pitchservice.dto.PitchImportFormat;
+import ma.startup.platform.pitchservice.dto.PitchImportReportDTO;
+
+import java.io.InputStream;
+
+public interface PitchImportService {
+
+    /**
+     * Importer des pitchs pour la startup de l'utilisateur, en lisant le corps au fil de l'eau.
+     * Les lignes invalides sont signalées dans le rapport sans interrompre l'import.
+     */
+    PitchImportReportDTO importPitchs(InputStream body, PitchImportFormat format, String authToken);
+}
@@ -0,0 +1,25 @@
+package ma.startup.platform.pitchservice.service;
+
+import ma.startup.platform.pitchservice.dto.PitchJobDTO;
+import ma.startup.platform.pitchservice.dto.PitchRequestDTO;
+
+import java.util.Map;
+import java.util.UUID;
+
+public interface PitchJobService {
+
+    /**
+     * Mettre en file une génération de pitch et retourner immédiatement la tâche
+     */
+    PitchJobDTO submit(PitchRequestDTO request, String authToken, boolean regenerate);
+
+    /**
+     * Consulter l'état d'une tâche (limitée à la startup de l'utilisateur)
+     */
+    PitchJobDTO getJob(UUID jobId, String authToken);
+
+    /**
+     * Profondeur de file, temps d'attente et temps d'exécution
+     */
+    Map<String, Object> stats();
+}
@@ -1,21 +1,73 @@
 package ma.startup.platform.pitchservice.service;
 
+import ma.startup.platform.pitchservice.dto.BulkPitchRequestDTO;
+import ma.startup.platform.pitchservice.dto.BulkPitchResultDTO;
+import ma.startup.platform.pitchservice.dto.CursorPageDTO;
+import ma.startup.platform.pitchservice.dto.DuplicateStrategy;
+import ma.startup.platform.pitchservice.dto.PitchField;
+import ma.startup.platform.pitchservice.dto.PitchListQuery;
 import ma.startup.platform.pitchservice.dto.PitchRequestDTO;
 import ma.startup.platform.pitchservice.dto.PitchResponseDTO;
+import ma.startup.platform.pitchservice.dto.PitchSearchHitDTO;
 import ma.startup.platform.pitchservice.dto.PitchStatsDTO;
+import ma.startup.platform.pitchservice.dto.RequestContext;
+import ma.startup.platform.pitchservice.dto.ResourceValidator;
+import ma.startup.platform.pitchservice.model.PitchType;
 
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 public interface PitchService {
 
     /**
      * Générer un nouveau pitch avec l'IA
+     * (regenerate = true ignore les réponses IA déjà en cache et les pitchs quasi identiques)
      */
-    PitchResponseDTO generatePitch(PitchRequestDTO request, String authToken);
+    default PitchResponseDTO generatePitch(PitchRequestDTO request, String authToken, boolean regenerate) {
+        return generatePitch(request, authToken, regenerate, null);
+    }
+
+    /**
+     * Générer un nouveau pitch ; si la demande est quasi identique à un pitch existant, appliquer onDuplicate
+     * (null : stratégie configurée). La réponse porte alors duplicateOf et similarity.
+     */
+    PitchResponseDTO generatePitch(PitchRequestDTO request, String authToken, boolean regenerate,
+                                   DuplicateStrategy onDuplicate);
+
+    /**
+     * Générer un nouveau pitch pour une identité déjà résolue (tâche asynchrone mise en file) :
+     * aucun nouvel appel Auth/Startup, le token peut avoir expiré entre-temps
+     */
+    PitchResponseDTO generatePitch(PitchRequestDTO request, RequestContext context, boolean regenerate,
+                                   DuplicateStrategy onDuplicate);
+
+    /**
+     * Créer un pitch de test sans appeler l'IA, par le même chemin de sauvegarde que les générations
+     */
+    PitchResponseDTO generateTestPitch(PitchRequestDTO request, String authToken);
+
+    /**
+     * Générer un nouveau pitch en streaming : chaque fragment est transmis à onToken,
+     * puis le pitch complet est sauvegardé une fois le flux terminé
+     */
+    PitchResponseDTO generatePitchStream(PitchRequestDTO request, String authToken, boolean regenerate,
+                                         Consumer<String> onToken);
+
+    /**
+     * Générer plusieurs types de pitch pour la même demande, en parallèle.
+     * L'identité est résolue une seule fois ; toutes les variantes sont sauvegardées ensemble,
+     * ou aucune si l'une des générations échoue.
+     */
+    List<PitchResponseDTO> generatePitchVariants(PitchRequestDTO request, Set<PitchType> types,
+                                                 String authToken, boolean regenerate);
 
     /**
      * Récupérer tous les pitchs d'un utilisateur
@@ -27,6 +79,21 @@ public interface PitchService {
      */
     PitchResponseDTO getPitchById(UUID pitchId, String authToken);
 
+    /**
+     * Récupérer un pitch sauf si le client en a déjà la version courante.
+     * notModified reçoit le validateur, calculé par une requête de métadonnées ;
+     * s'il retourne true, le pitch n'est pas chargé et le résultat est vide.
+     */
+    Optional<PitchResponseDTO> getPitchByIdIfModified(UUID pitchId, String authToken,
+                                                      Predicate<ResourceValidator> notModified);
+
+    /**
+     * Récupérer mes pitchs (ou mes favoris) sauf si le client a déjà la liste courante.
+     * fields null : DTO complets, sinon seulement les champs demandés (comme getMyPitchsFields).
+     */
+    Optional<List<?>> getMyPitchsIfModified(String authToken, boolean favoritesOnly, Set<PitchField> fields,
+                                            Predicate<ResourceValidator> notModified);
+
     /**
      * Modifier un pitch manuellement
      */
@@ -47,6 +114,12 @@ public interface PitchService {
      */
     PitchResponseDTO ratePitch(UUID pitchId, Integer rating, String authToken);
 
+    /**
+     * Favori / retrait des favoris / note / suppression d'une liste de pitchs,
+     * en une seule requête UPDATE ou DELETE limitée à la startup de l'utilisateur
+     */
+    BulkPitchResultDTO bulkUpdate(BulkPitchRequestDTO request, String authToken);
+
     /**
      * Récupérer les pitchs favoris
      */
@@ -57,6 +130,28 @@ public interface PitchService {
      */
     Page<PitchResponseDTO> getMyPitchsPaginated(String authToken, Pageable pageable);
 
+    /**
+     * Récupérer les pitchs par curseur (keyset) : tri autorisé, filtres favoris/type, sans COUNT
+     */
+    CursorPageDTO<PitchResponseDTO> getMyPitchsByCursor(String authToken, PitchListQuery query);
+
+    /**
+     * Recherche plein texte dans mes pitchs (problème, solution, cible, avantage, pitch généré),
+     * résultats classés par pertinence avec extraits surlignés, pagination par curseur
+     */
+    CursorPageDTO<PitchSearchHitDTO> searchMyPitchs(String authToken, String query, String cursor, int size);
+
+    /**
+     * Listings restreints aux champs demandés ("fields=") : seules ces colonnes sont lues en base,
+     * sans charger d'entité Pitch
+     */
+    List<Map<String, Object>> getMyPitchsFields(String authToken, boolean favoritesOnly, Set<PitchField> fields);
+
+    Page<Map<String, Object>> getMyPitchsPaginatedFields(String authToken, Pageable pageable, Set<PitchField> fields);
+
+    CursorPageDTO<Map<String, Object>> getMyPitchsByCursorFields(String authToken, PitchListQuery query,
+                                                                 Set<PitchField> fields);
+
     /**
      * Statistiques des pitchs
      */
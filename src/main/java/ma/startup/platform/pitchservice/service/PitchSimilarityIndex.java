@@ -0,0 +1,200 @@
+package ma.startup.platform.pitchservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import ma.startup.platform.pitchservice.dto.DuplicateStrategy;
+import ma.startup.platform.pitchservice.model.PitchType;
+import ma.startup.platform.pitchservice.repository.PitchRepository;
+import ma.startup.platform.pitchservice.repository.PitchSignatureView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Index de similarité des demandes de génération, par startup.
+ *
+ * Chaque pitch porte un SimHash 64 bits de ses champs saisis (mots et paires de mots, préfixés par le champ) ;
+ * deux demandes qui ne diffèrent que de quelques mots ont des empreintes proches en distance de Hamming.
+ * Les empreintes d'une startup sont chargées une fois depuis la colonne input_simhash puis tenues à jour
+ * en mémoire ; la recherche est un parcours de longs (XOR + bitCount), sans accès base.
+ */
+@Component
+@Slf4j
+public class PitchSimilarityIndex {
+
+    public record Match(UUID pitchId, double similarity) {
+    }
+
+    private record Entry(PitchType type, long signature) {
+    }
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final PitchRepository pitchRepository;
+    private final boolean enabled;
+    private final double threshold;
+    @Getter
+    private final DuplicateStrategy defaultStrategy;
+    private final Cache<UUID, Map<UUID, Entry>> startups;
+
+    public PitchSimilarityIndex(
+            PitchRepository pitchRepository,
+            @Value("${pitch.dedup.enabled:true}") boolean enabled,
+            @Value("${pitch.dedup.threshold:0.9}") double threshold,
+            @Value("${pitch.dedup.strategy:REUSE}") DuplicateStrategy defaultStrategy,
+            @Value("${pitch.dedup.max-startups:10000}") long maxStartups,
+            @Value("${pitch.dedup.expire-minutes:60}") long expireMinutes
+    ) {
+        this.pitchRepository = pitchRepository;
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.defaultStrategy = defaultStrategy;
+        // Expiration : les pitchs créés par une autre instance finissent par être pris en compte
+        this.startups = Caffeine.newBuilder()
+                .maximumSize(maxStartups)
+                .expireAfterAccess(Duration.ofMinutes(expireMinutes))
+                .build();
+    }
+
+    /**
+     * Pitch existant du même type le plus proche, si sa similarité atteint le seuil
+     */
+    public Optional<Match> findNearDuplicate(UUID startupId, PitchType type, long signature) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        UUID bestId = null;
+        int bestDistance = Integer.MAX_VALUE;
+        for (Map.Entry<UUID, Entry> candidate : entries(startupId).entrySet()) {
+            if (candidate.getValue().type() != type) {
+                continue;
+            }
+            int distance = Long.bitCount(candidate.getValue().signature() ^ signature);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                bestId = candidate.getKey();
+            }
+        }
+        if (bestId == null) {
+            return Optional.empty();
+        }
+        double similarity = similarity(bestDistance);
+        return similarity >= threshold ? Optional.of(new Match(bestId, similarity)) : Optional.empty();
+    }
+
+    public void add(UUID startupId, UUID pitchId, PitchType type, Long signature) {
+        if (signature == null) {
+            return;
+        }
+        Map<UUID, Entry> entries = startups.getIfPresent(startupId);
+        // Startup pas encore chargée : le prochain chargement lira la ligne en base
+        if (entries != null) {
+            entries.put(pitchId, new Entry(type, signature));
+        }
+    }
+
+    public void remove(UUID startupId, UUID pitchId) {
+        Map<UUID, Entry> entries = startups.getIfPresent(startupId);
+        if (entries != null) {
+            entries.remove(pitchId);
+        }
+    }
+
+    // Après une écriture hors de ce service (import en masse) : rechargement au prochain accès
+    public void invalidate(UUID startupId) {
+        startups.invalidate(startupId);
+    }
+
+    public static long signature(String probleme, String solution, String cible, String avantage) {
+        int[] weights = new int[Long.SIZE];
+        addFeatures(weights, "probleme", probleme);
+        addFeatures(weights, "solution", solution);
+        addFeatures(weights, "cible", cible);
+        addFeatures(weights, "avantage", avantage);
+
+        long signature = 0;
+        for (int bit = 0; bit < Long.SIZE; bit++) {
+            if (weights[bit] > 0) {
+                signature |= 1L << bit;
+            }
+        }
+        return signature;
+    }
+
+    static double similarity(int hammingDistance) {
+        return 1.0 - (double) hammingDistance / Long.SIZE;
+    }
+
+    private Map<UUID, Entry> entries(UUID startupId) {
+        return startups.get(startupId, id -> {
+            List<PitchSignatureView> signatures = pitchRepository.findSignatures(id);
+            Map<UUID, Entry> entries = new ConcurrentHashMap<>(Math.max(16, signatures.size() * 2));
+            signatures.forEach(view -> entries.put(view.getId(), new Entry(view.getType(), view.getInputSimhash())));
+            log.debug("Index de similarité chargé pour la startup {}: {} empreintes", id, entries.size());
+            return entries;
+        });
+    }
+
+    private static void addFeatures(int[] weights, String field, String text) {
+        List<String> words = words(text);
+        for (int i = 0; i < words.size(); i++) {
+            addFeature(weights, field + ":" + words.get(i));
+            if (i > 0) {
+                addFeature(weights, field + ":" + words.get(i - 1) + " " + words.get(i));
+            }
+        }
+    }
+
+    private static void addFeature(int[] weights, String feature) {
+        long hash = hash64(feature);
+        for (int bit = 0; bit < Long.SIZE; bit++) {
+            weights[bit] += ((hash >>> bit) & 1L) == 1L ? 1 : -1;
+        }
+    }
+
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        for (String word : NON_WORD.split(normalized)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    // FNV-1a 64 bits suivi du mélange final de MurmurHash3, pour des bits bien répartis
+    private static long hash64(String value) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
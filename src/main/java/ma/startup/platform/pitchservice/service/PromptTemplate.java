@@ -0,0 +1,78 @@
+package ma.startup.platform.pitchservice.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Template de prompt compilé : segments littéraux et emplacements ({{probleme}}, {{consigne}}...)
+ * découpés une seule fois. Le rendu ne fait que concaténer, sans analyse ni expression régulière.
+ * Immuable, partageable entre threads.
+ */
+public final class PromptTemplate {
+
+    public enum Slot {
+        STARTUP, SECTEUR, PROBLEME, SOLUTION, CIBLE, AVANTAGE, TYPE, CONSIGNE;
+
+        static Slot fromName(String name) {
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Emplacement inconnu dans le template: {{" + name + "}}");
+            }
+        }
+    }
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+    // Taille moyenne estimée d'une valeur, pour dimensionner le buffer du rendu
+    private static final int ESTIMATED_SLOT_LENGTH = 64;
+
+    // literals[i] précède slots[i] ; literals contient un élément de plus que slots
+    private final String[] literals;
+    private final Slot[] slots;
+    private final int estimatedLength;
+
+    private PromptTemplate(String[] literals, Slot[] slots) {
+        this.literals = literals;
+        this.slots = slots;
+        this.estimatedLength = Arrays.stream(literals).mapToInt(String::length).sum()
+                + slots.length * ESTIMATED_SLOT_LENGTH;
+    }
+
+    /**
+     * @throws IllegalArgumentException si un emplacement est inconnu ou non fermé
+     */
+    public static PromptTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<Slot> slots = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, position);
+            if (open < 0) {
+                literals.add(source.substring(position));
+                break;
+            }
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Emplacement non fermé à la position " + open);
+            }
+            literals.add(source.substring(position, open));
+            slots.add(Slot.fromName(source.substring(open + OPEN.length(), close)));
+            position = close + CLOSE.length();
+        }
+        return new PromptTemplate(literals.toArray(String[]::new), slots.toArray(Slot[]::new));
+    }
+
+    /**
+     * @param values valeurs indexées par Slot.ordinal()
+     */
+    public String render(String[] values) {
+        StringBuilder prompt = new StringBuilder(estimatedLength);
+        for (int i = 0; i < slots.length; i++) {
+            prompt.append(literals[i]).append(values[slots[i].ordinal()]);
+        }
+        return prompt.append(literals[slots.length]).toString();
+    }
+}
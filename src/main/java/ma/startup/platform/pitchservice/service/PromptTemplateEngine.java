@@ -0,0 +1,174 @@
+package ma.startup.platform.pitchservice.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import lombok.extern.slf4j.Slf4j;
+import ma.startup.platform.pitchservice.dto.StartupDTO;
+import ma.startup.platform.pitchservice.model.PitchTemplate;
+import ma.startup.platform.pitchservice.model.PitchType;
+import ma.startup.platform.pitchservice.repository.PitchTemplateRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Construit les prompts à partir des PitchTemplate actifs.
+ *
+ * Les templates d'un secteur sont lus et compilés une fois, puis gardés en mémoire (Caffeine) :
+ * un rendu ne touche ni la base ni le texte source. Choix du template : secteur + type,
+ * puis secteur seul, puis templates sans secteur, puis le prompt par défaut intégré.
+ * Le cache est vidé après chaque modification d'un template par l'application
+ * (PromptTemplateInvalidationListener) et rechargé périodiquement pour les modifications externes.
+ */
+@Component
+@Slf4j
+public class PromptTemplateEngine {
+
+    static final String DEFAULT_TEMPLATE = """
+            Tu es un expert en pitchs de start-ups.
+
+            Génère un pitch professionnel EN FRANÇAIS pour:
+
+            Startup: {{startup}}
+            Secteur: {{secteur}}
+            Problème: {{probleme}}
+            Solution: {{solution}}
+            Cible: {{cible}}
+            Avantage: {{avantage}}
+
+            {{consigne}}
+
+            Réponds UNIQUEMENT avec le pitch, sans introduction.
+            Langue: FRANÇAIS
+            """;
+
+    // Clé du cache pour les templates sans secteur (Caffeine refuse les clés null)
+    private static final String NO_SECTEUR = "";
+
+    private static final PromptTemplate DEFAULT = PromptTemplate.compile(DEFAULT_TEMPLATE);
+
+    private final PitchTemplateRepository repository;
+    private final LoadingCache<String, SectorTemplates> cache;
+
+    public PromptTemplateEngine(
+            PitchTemplateRepository repository,
+            @Value("${pitch.templates.refresh-seconds:300}") long refreshSeconds,
+            @Value("${pitch.templates.max-sectors:500}") long maxSectors
+    ) {
+        this.repository = repository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSectors)
+                .refreshAfterWrite(Duration.ofSeconds(refreshSeconds))
+                .build(this::load);
+    }
+
+    public String render(
+            String probleme,
+            String solution,
+            String cible,
+            String avantage,
+            StartupDTO startup,
+            PitchType type
+    ) {
+        String[] values = new String[PromptTemplate.Slot.values().length];
+        values[PromptTemplate.Slot.STARTUP.ordinal()] = String.valueOf(startup.getNom());
+        values[PromptTemplate.Slot.SECTEUR.ordinal()] = String.valueOf(startup.getSecteur());
+        values[PromptTemplate.Slot.PROBLEME.ordinal()] = String.valueOf(probleme);
+        values[PromptTemplate.Slot.SOLUTION.ordinal()] = String.valueOf(solution);
+        values[PromptTemplate.Slot.CIBLE.ordinal()] = String.valueOf(cible);
+        values[PromptTemplate.Slot.AVANTAGE.ordinal()] = String.valueOf(avantage);
+        values[PromptTemplate.Slot.TYPE.ordinal()] = type.name();
+        values[PromptTemplate.Slot.CONSIGNE.ordinal()] = consigne(type);
+
+        return select(startup.getSecteur(), type).render(values);
+    }
+
+    /**
+     * Vide le cache ; dans une transaction, seulement après le commit
+     * pour ne pas recharger une version pas encore visible
+     */
+    public void invalidateAll() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidateAll();
+                }
+            });
+        } else {
+            cache.invalidateAll();
+        }
+        log.info("Cache des templates de prompt invalidé");
+    }
+
+    private PromptTemplate select(String secteur, PitchType type) {
+        if (secteur != null && !secteur.isBlank()) {
+            PromptTemplate template = sector(secteur).find(type);
+            if (template != null) {
+                return template;
+            }
+        }
+        PromptTemplate template = sector(NO_SECTEUR).find(type);
+        return template != null ? template : DEFAULT;
+    }
+
+    private SectorTemplates sector(String secteur) {
+        try {
+            return cache.get(secteur);
+        } catch (RuntimeException e) {
+            // Base indisponible : prompt par défaut, nouvel essai à la prochaine requête
+            log.warn("Chargement des templates impossible pour le secteur '{}': {}", secteur, e.getMessage());
+            return SectorTemplates.EMPTY;
+        }
+    }
+
+    private SectorTemplates load(String secteur) {
+        List<PitchTemplate> templates = repository.findBySecteurAndIsActiveTrue(
+                NO_SECTEUR.equals(secteur) ? null : secteur);
+
+        Map<PitchType, PromptTemplate> byType = new EnumMap<>(PitchType.class);
+        PromptTemplate anyType = null;
+        // Ordre stable si plusieurs templates actifs visent la même combinaison : le premier par nom
+        for (PitchTemplate template : templates.stream().sorted(Comparator.comparing(PitchTemplate::getNom)).toList()) {
+            PromptTemplate compiled;
+            try {
+                compiled = PromptTemplate.compile(template.getPrompt());
+            } catch (IllegalArgumentException e) {
+                log.warn("Template '{}' ignoré: {}", template.getNom(), e.getMessage());
+                continue;
+            }
+            if (template.getType() == null) {
+                anyType = anyType != null ? anyType : compiled;
+            } else {
+                byType.putIfAbsent(template.getType(), compiled);
+            }
+        }
+        log.info("Templates de prompt compilés pour le secteur '{}': {}", secteur, templates.size());
+        return new SectorTemplates(byType, anyType);
+    }
+
+    private static String consigne(PitchType type) {
+        return switch (type) {
+            case ELEVATOR -> "Crée un elevator pitch de 120-150 mots.";
+            case DECK -> "Crée une structure pitch deck complète.";
+            case VALUE_PROP -> "Crée une proposition de valeur de 80-100 mots.";
+        };
+    }
+
+    private record SectorTemplates(Map<PitchType, PromptTemplate> byType, PromptTemplate anyType) {
+
+        static final SectorTemplates EMPTY = new SectorTemplates(Map.of(), null);
+
+        PromptTemplate find(PitchType type) {
+            PromptTemplate template = byType.get(type);
+            return template != null ? template : anyType;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package ma.startup.platform.pitchservice.service;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import ma.startup.platform.pitchservice.model.PitchTemplate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listener JPA de PitchTemplate : toute création, modification ou suppression
+ * vide le cache des templates compilés
+ */
+@Component
+@RequiredArgsConstructor
+public class PromptTemplateInvalidationListener {
+
+    // Résolu à l'usage : le listener est créé par Hibernate avant le moteur de templates
+    private final ObjectProvider<PromptTemplateEngine> engine;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(PitchTemplate template) {
+        engine.ifAvailable(PromptTemplateEngine::invalidateAll);
+    }
+}
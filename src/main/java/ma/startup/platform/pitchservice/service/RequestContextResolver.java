@@ -0,0 +1,74 @@
+package ma.startup.platform.pitchservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import ma.startup.platform.pitchservice.client.AuthServiceClient;
+import ma.startup.platform.pitchservice.client.StartupServiceClient;
+import ma.startup.platform.pitchservice.dto.RequestContext;
+import ma.startup.platform.pitchservice.dto.StartupDTO;
+import ma.startup.platform.pitchservice.dto.UserDTO;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Résout l'utilisateur et sa startup en lançant les deux appels Feign en parallèle.
+ * Les deux appels partagent la même échéance ; les exceptions des clients sont relancées telles quelles.
+ */
+@Component
+@Slf4j
+public class RequestContextResolver {
+
+    private final AuthServiceClient authServiceClient;
+    private final StartupServiceClient startupServiceClient;
+    private final TaskExecutor executor;
+    private final long timeoutMs;
+
+    public RequestContextResolver(
+            AuthServiceClient authServiceClient,
+            StartupServiceClient startupServiceClient,
+            @Qualifier("identityExecutor") TaskExecutor executor,
+            @Value("${identity.resolve.timeout-ms:10000}") long timeoutMs
+    ) {
+        this.authServiceClient = authServiceClient;
+        this.startupServiceClient = startupServiceClient;
+        this.executor = executor;
+        this.timeoutMs = timeoutMs;
+    }
+
+    public RequestContext resolve(String authToken) {
+        CompletableFuture<UserDTO> user = CompletableFuture.supplyAsync(
+                () -> authServiceClient.getCurrentUser(authToken), executor);
+        CompletableFuture<StartupDTO> startup = CompletableFuture.supplyAsync(
+                () -> startupServiceClient.getMyStartup(authToken), executor);
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        try {
+            UserDTO resolvedUser = user.get(timeoutMs, TimeUnit.MILLISECONDS);
+            StartupDTO resolvedStartup = startup.get(
+                    Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return new RequestContext(resolvedUser, resolvedStartup);
+        } catch (ExecutionException e) {
+            startup.cancel(true);
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (TimeoutException e) {
+            user.cancel(true);
+            startup.cancel(true);
+            log.error("Délai dépassé ({} ms) lors de la résolution de l'identité", timeoutMs);
+            throw new RuntimeException("Services Auth/Startup temporairement indisponibles");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            user.cancel(true);
+            startup.cancel(true);
+            throw new RuntimeException("Résolution de l'identité interrompue", e);
+        }
+    }
+}
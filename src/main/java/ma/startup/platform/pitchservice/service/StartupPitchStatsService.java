@@ -0,0 +1,193 @@
+package ma.startup.platform.pitchservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ma.startup.platform.pitchservice.dto.PitchStatsDTO;
+import ma.startup.platform.pitchservice.model.Pitch;
+import ma.startup.platform.pitchservice.model.PitchType;
+import ma.startup.platform.pitchservice.model.StartupPitchStats;
+import ma.startup.platform.pitchservice.repository.StartupPitchStatsRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Maintient la ligne de statistiques de chaque startup par variations (+1/-1...),
+ * appliquées dans la transaction de l'appelant.
+ *
+ * Si la ligne n'existe pas encore (startup antérieure à cette table), elle est calculée une fois
+ * depuis la table des pitchs ; la modification en cours, déjà flushée, y est donc incluse.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StartupPitchStatsService {
+
+    private final StartupPitchStatsRepository statsRepository;
+
+    @Transactional
+    public PitchStatsDTO getStats(UUID startupId) {
+        StartupPitchStats stats = statsRepository.findById(startupId)
+                .orElseGet(() -> {
+                    log.info("Initialisation des statistiques de la startup {}", startupId);
+                    statsRepository.seedFromPitchs(startupId);
+                    return statsRepository.findById(startupId).orElseThrow();
+                });
+        return toDTO(stats);
+    }
+
+    @Transactional
+    public void onCreated(Pitch pitch) {
+        apply(pitch.getStartupId(), Delta.of(pitch, 1));
+    }
+
+    /**
+     * Création en lot : une seule mise à jour par startup
+     */
+    @Transactional
+    public void onCreated(Collection<Pitch> pitchs) {
+        applyAll(pitchs, 1);
+    }
+
+    @Transactional
+    public void onDeleted(Pitch pitch) {
+        apply(pitch.getStartupId(), Delta.of(pitch, -1));
+    }
+
+    /**
+     * Suppression en lot : une seule mise à jour par startup
+     */
+    @Transactional
+    public void onDeleted(Collection<Pitch> pitchs) {
+        applyAll(pitchs, -1);
+    }
+
+    @Transactional
+    public void onFavoriteChanged(UUID startupId, boolean favorite) {
+        onFavoriteChanged(startupId, favorite, 1);
+    }
+
+    /**
+     * count pitchs passés en favori (ou retirés des favoris)
+     */
+    @Transactional
+    public void onFavoriteChanged(UUID startupId, boolean favorite, long count) {
+        if (count == 0) {
+            return;
+        }
+        apply(startupId, new Delta(0, favorite ? count : -count, 0, 0, 0, 0, 0));
+    }
+
+    @Transactional
+    public void onRated(UUID startupId, Integer previousRating, Integer newRating) {
+        if (Objects.equals(previousRating, newRating)) {
+            return;
+        }
+        long ratingSum = valueOf(newRating) - valueOf(previousRating);
+        long ratingCount = (newRating != null ? 1 : 0) - (previousRating != null ? 1 : 0);
+        onRatingsChanged(startupId, ratingSum, ratingCount);
+    }
+
+    /**
+     * Variation cumulée de plusieurs notes (somme et nombre de pitchs notés)
+     */
+    @Transactional
+    public void onRatingsChanged(UUID startupId, long ratingSumDelta, long ratingCountDelta) {
+        if (ratingSumDelta == 0 && ratingCountDelta == 0) {
+            return;
+        }
+        apply(startupId, new Delta(0, 0, ratingSumDelta, ratingCountDelta, 0, 0, 0));
+    }
+
+    private void applyAll(Collection<Pitch> pitchs, int sign) {
+        Map<UUID, Delta> deltas = new HashMap<>();
+        for (Pitch pitch : pitchs) {
+            deltas.merge(pitch.getStartupId(), Delta.of(pitch, sign), Delta::plus);
+        }
+        deltas.forEach(this::apply);
+    }
+
+    private void apply(UUID startupId, Delta delta) {
+        if (update(startupId, delta) > 0) {
+            return;
+        }
+        // Pas encore de ligne : on la calcule depuis les pitchs (modification en cours incluse).
+        // Si une autre transaction l'a créée entre-temps, on applique la variation sur la sienne.
+        if (statsRepository.seedFromPitchs(startupId) == 0) {
+            update(startupId, delta);
+        }
+    }
+
+    private int update(UUID startupId, Delta delta) {
+        return statsRepository.applyDelta(
+                startupId,
+                delta.total(),
+                delta.favorites(),
+                delta.ratingSum(),
+                delta.ratingCount(),
+                delta.elevator(),
+                delta.deck(),
+                delta.valueProp()
+        );
+    }
+
+    private static long valueOf(Integer rating) {
+        return rating != null ? rating : 0;
+    }
+
+    private PitchStatsDTO toDTO(StartupPitchStats stats) {
+        Map<String, Long> pitchsByType = new HashMap<>();
+        putIfPositive(pitchsByType, PitchType.ELEVATOR, stats.getElevatorPitchs());
+        putIfPositive(pitchsByType, PitchType.DECK, stats.getDeckPitchs());
+        putIfPositive(pitchsByType, PitchType.VALUE_PROP, stats.getValuePropPitchs());
+
+        return PitchStatsDTO.builder()
+                .totalPitchs(stats.getTotalPitchs())
+                .favoritePitchs(stats.getFavoritePitchs())
+                .averageRating(stats.getRatingCount() > 0
+                        ? (double) stats.getRatingSum() / stats.getRatingCount()
+                        : 0.0)
+                .pitchsByType(pitchsByType)
+                .build();
+    }
+
+    private static void putIfPositive(Map<String, Long> pitchsByType, PitchType type, long count) {
+        if (count > 0) {
+            pitchsByType.put(type.name(), count);
+        }
+    }
+
+    private record Delta(long total, long favorites, long ratingSum, long ratingCount,
+                         long elevator, long deck, long valueProp) {
+
+        static Delta of(Pitch pitch, int sign) {
+            PitchType type = pitch.getType();
+            return new Delta(
+                    sign,
+                    Boolean.TRUE.equals(pitch.getIsFavorite()) ? sign : 0,
+                    sign * valueOf(pitch.getRating()),
+                    pitch.getRating() != null ? sign : 0,
+                    type == PitchType.ELEVATOR ? sign : 0,
+                    type == PitchType.DECK ? sign : 0,
+                    type == PitchType.VALUE_PROP ? sign : 0
+            );
+        }
+
+        Delta plus(Delta other) {
+            return new Delta(
+                    total + other.total,
+                    favorites + other.favorites,
+                    ratingSum + other.ratingSum,
+                    ratingCount + other.ratingCount,
+                    elevator + other.elevator,
+                    deck + other.deck,
+                    valueProp + other.valueProp
+            );
+        }
+    }
+}
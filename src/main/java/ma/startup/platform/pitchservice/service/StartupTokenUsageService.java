@@ -0,0 +1,291 @@
+package ma.startup.platform.pitchservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import ma.startup.platform.pitchservice.dto.TokenUsageDTO;
+import ma.startup.platform.pitchservice.exception.AIQuotaExceededException;
+import ma.startup.platform.pitchservice.model.PitchType;
+import ma.startup.platform.pitchservice.repository.StartupTokenUsageRepository;
+import ma.startup.platform.pitchservice.repository.StartupTokenUsageRepository.UsageRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Comptabilité des jetons IA par startup et par type de pitch, et quotas quotidiens/mensuels.
+ *
+ * Chaque réponse Groq ajoute ses jetons à des compteurs LongAdder en mémoire (startup, jour, type),
+ * vidés périodiquement vers startup_token_usage en un seul lot. Le contrôle des quotas s'appuie sur
+ * les totaux en base (relus au plus toutes les totals-ttl-seconds) plus la consommation locale non
+ * encore écrite : c'est un quota souple, des appels simultanés peuvent le dépasser légèrement.
+ */
+@Service
+@Slf4j
+public class StartupTokenUsageService {
+
+    // Type enregistré pour les appels sans type de pitch (améliorations, suggestions)
+    static final String NO_TYPE = "NONE";
+
+    private final StartupTokenUsageRepository repository;
+    private final boolean enabled;
+    private final long dailyQuota;
+    private final long monthlyQuota;
+    private final ZoneId zone;
+
+    private final ConcurrentHashMap<UsageKey, Counters> pending = new ConcurrentHashMap<>();
+    private final Cache<UUID, Totals> totals;
+
+    public StartupTokenUsageService(
+            StartupTokenUsageRepository repository,
+            @Value("${ai.quota.enabled:true}") boolean enabled,
+            @Value("${ai.quota.daily-tokens:0}") long dailyQuota,
+            @Value("${ai.quota.monthly-tokens:0}") long monthlyQuota,
+            @Value("${ai.usage.zone:UTC}") String zone,
+            @Value("${ai.usage.totals-ttl-seconds:60}") long totalsTtlSeconds,
+            @Value("${ai.usage.max-startups:10000}") long maxStartups
+    ) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.dailyQuota = dailyQuota;
+        this.monthlyQuota = monthlyQuota;
+        this.zone = ZoneId.of(zone);
+        this.totals = Caffeine.newBuilder()
+                .maximumSize(maxStartups)
+                .expireAfterWrite(Duration.ofSeconds(totalsTtlSeconds))
+                .build();
+    }
+
+    /**
+     * À appeler avant tout appel sortant au fournisseur IA pour le compte d'une startup.
+     * Sans startup (appel non attribué) ou sans quota configuré, l'appel est toujours autorisé.
+     */
+    public void checkQuota(UUID startupId) {
+        if (!enabled || startupId == null || (dailyQuota <= 0 && monthlyQuota <= 0)) {
+            return;
+        }
+        LocalDate today = today();
+        Totals current = currentTotals(startupId, today);
+        long used = current.persistedDaily + current.local.sum();
+        long usedThisMonth = current.persistedMonthly + current.local.sum();
+
+        if (dailyQuota > 0 && used >= dailyQuota) {
+            log.warn("Quota quotidien de jetons IA atteint pour la startup {} ({} / {})", startupId, used, dailyQuota);
+            throw new AIQuotaExceededException("Quota quotidien de jetons IA atteint",
+                    secondsUntil(today.plusDays(1)));
+        }
+        if (monthlyQuota > 0 && usedThisMonth >= monthlyQuota) {
+            log.warn("Quota mensuel de jetons IA atteint pour la startup {} ({} / {})",
+                    startupId, usedThisMonth, monthlyQuota);
+            throw new AIQuotaExceededException("Quota mensuel de jetons IA atteint",
+                    secondsUntil(today.withDayOfMonth(1).plusMonths(1)));
+        }
+    }
+
+    public void record(UUID startupId, PitchType type, TokenUsage usage) {
+        if (startupId == null) {
+            return;
+        }
+        LocalDate today = today();
+        UsageKey key = new UsageKey(startupId, today, type != null ? type.name() : NO_TYPE);
+        pending.computeIfAbsent(key, k -> new Counters()).add(usage);
+
+        Totals current = totals.getIfPresent(startupId);
+        if (current != null && current.day.equals(today)) {
+            current.local.add(usage.totalTokens());
+        }
+    }
+
+    /**
+     * Consommation du jour et du mois en cours, y compris les jetons pas encore écrits en base
+     */
+    public TokenUsageDTO getUsage(UUID startupId) {
+        LocalDate today = today();
+        List<UsageRow> rows = new ArrayList<>(repository.findSince(startupId, today.withDayOfMonth(1)));
+        pending.forEach((key, counters) -> {
+            if (key.startupId.equals(startupId)) {
+                rows.add(counters.snapshot(key));
+            }
+        });
+
+        long daily = 0;
+        long prompt = 0;
+        long completion = 0;
+        long calls = 0;
+        Map<String, Long> byType = new HashMap<>();
+        for (UsageRow row : rows) {
+            if (row.day().isBefore(today.withDayOfMonth(1))) {
+                continue;
+            }
+            if (row.day().equals(today)) {
+                daily += row.totalTokens();
+            }
+            prompt += row.promptTokens();
+            completion += row.completionTokens();
+            calls += row.calls();
+            byType.merge(row.pitchType(), row.totalTokens(), Long::sum);
+        }
+
+        return TokenUsageDTO.builder()
+                .date(today)
+                .dailyTokens(daily)
+                .dailyQuota(dailyQuota > 0 ? dailyQuota : null)
+                .monthlyTokens(prompt + completion)
+                .monthlyQuota(monthlyQuota > 0 ? monthlyQuota : null)
+                .monthlyPromptTokens(prompt)
+                .monthlyCompletionTokens(completion)
+                .monthlyCalls(calls)
+                .monthlyTokensByType(byType)
+                .build();
+    }
+
+    /**
+     * Écrit les compteurs accumulés depuis le dernier vidage en un seul lot.
+     * sumThenReset n'efface que ce qu'il lit : un ajout concurrent est écrit au vidage suivant.
+     * En cas d'échec, les variations sont remises dans les compteurs.
+     */
+    @Scheduled(fixedDelayString = "${ai.usage.flush-interval-ms:10000}")
+    public void flush() {
+        LocalDate today = today();
+        List<UsageRow> rows = new ArrayList<>();
+        pending.forEach((key, counters) -> {
+            // Compteurs des jours passés : plus aucun appel ne les alimente
+            if (key.day.isBefore(today)) {
+                pending.remove(key, counters);
+            }
+            UsageRow row = counters.drain(key);
+            if (row.calls() > 0 || row.totalTokens() > 0) {
+                rows.add(row);
+            }
+        });
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        try {
+            repository.addAll(rows);
+            log.debug("Consommation de jetons IA écrite : {} lignes", rows.size());
+        } catch (Exception e) {
+            log.warn("Écriture de la consommation de jetons IA impossible, nouvel essai au prochain vidage: {}",
+                    e.getMessage());
+            rows.forEach(row -> pending
+                    .computeIfAbsent(new UsageKey(row.startupId(), row.day(), row.pitchType()), k -> new Counters())
+                    .restore(row));
+        }
+    }
+
+    /**
+     * Dernier vidage à l'arrêt de l'application : sans lui, la consommation enregistrée depuis le
+     * vidage précédent serait perdue. Le dépôt dépendant de ce service n'est détruit qu'après.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("Arrêt : écriture de la consommation de jetons IA en attente");
+        flush();
+    }
+
+    private Totals currentTotals(UUID startupId, LocalDate today) {
+        Totals current = totals.get(startupId, id -> load(id, today));
+        if (!current.day.equals(today)) {
+            // Changement de jour (ou de mois) depuis le dernier chargement
+            current = load(startupId, today);
+            totals.put(startupId, current);
+        }
+        return current;
+    }
+
+    /**
+     * Totaux en base, plus les compteurs locaux pas encore écrits
+     */
+    private Totals load(UUID startupId, LocalDate today) {
+        StartupTokenUsageRepository.Totals persisted = repository.totals(startupId, today);
+        long daily = persisted.daily();
+        long monthly = persisted.monthly();
+        for (Map.Entry<UsageKey, Counters> entry : pending.entrySet()) {
+            UsageKey key = entry.getKey();
+            if (!key.startupId.equals(startupId) || key.day.isBefore(today.withDayOfMonth(1))) {
+                continue;
+            }
+            long tokens = entry.getValue().totalTokens();
+            if (key.day.equals(today)) {
+                daily += tokens;
+            }
+            monthly += tokens;
+        }
+        return new Totals(today, daily, monthly);
+    }
+
+    private long secondsUntil(LocalDate day) {
+        ZonedDateTime now = ZonedDateTime.now(zone);
+        return Math.max(1, Duration.between(now, day.atStartOfDay(zone)).toSeconds());
+    }
+
+    private LocalDate today() {
+        return LocalDate.now(zone);
+    }
+
+    private record UsageKey(UUID startupId, LocalDate day, String pitchType) {
+    }
+
+    private static final class Counters {
+        private final LongAdder promptTokens = new LongAdder();
+        private final LongAdder completionTokens = new LongAdder();
+        private final LongAdder calls = new LongAdder();
+
+        void add(TokenUsage usage) {
+            promptTokens.add(usage.promptTokens());
+            completionTokens.add(usage.completionTokens());
+            calls.increment();
+        }
+
+        void restore(UsageRow row) {
+            promptTokens.add(row.promptTokens());
+            completionTokens.add(row.completionTokens());
+            calls.add(row.calls());
+        }
+
+        long totalTokens() {
+            return promptTokens.sum() + completionTokens.sum();
+        }
+
+        UsageRow snapshot(UsageKey key) {
+            return new UsageRow(key.startupId, key.day, key.pitchType,
+                    promptTokens.sum(), completionTokens.sum(), calls.sum());
+        }
+
+        UsageRow drain(UsageKey key) {
+            return new UsageRow(key.startupId, key.day, key.pitchType,
+                    promptTokens.sumThenReset(), completionTokens.sumThenReset(), calls.sumThenReset());
+        }
+    }
+
+    /**
+     * Totaux d'une startup pour un jour donné : lus en base au chargement, complétés par les jetons
+     * enregistrés localement depuis (local)
+     */
+    private static final class Totals {
+        private final LocalDate day;
+        private final long persistedDaily;
+        private final long persistedMonthly;
+        private final LongAdder local = new LongAdder();
+
+        Totals(LocalDate day, long persistedDaily, long persistedMonthly) {
+            this.day = day;
+            this.persistedDaily = persistedDaily;
+            this.persistedMonthly = persistedMonthly;
+        }
+    }
+}
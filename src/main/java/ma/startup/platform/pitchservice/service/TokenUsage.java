@@ -0,0 +1,30 @@
+package ma.startup.platform.pitchservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Optional;
+
+/**
+ * Jetons facturés pour un appel Groq, lus dans le bloc "usage" de la réponse (format OpenAI)
+ * ou dans "x_groq.usage" du dernier événement d'une réponse en streaming.
+ */
+public record TokenUsage(long promptTokens, long completionTokens) {
+
+    public static Optional<TokenUsage> from(JsonNode response) {
+        JsonNode usage = response.path("usage");
+        if (!usage.isObject()) {
+            usage = response.path("x_groq").path("usage");
+        }
+        if (!usage.isObject()) {
+            return Optional.empty();
+        }
+        return Optional.of(new TokenUsage(
+                usage.path("prompt_tokens").asLong(0),
+                usage.path("completion_tokens").asLong(0)
+        ));
+    }
+
+    public long totalTokens() {
+        return promptTokens + completionTokens;
+    }
+}
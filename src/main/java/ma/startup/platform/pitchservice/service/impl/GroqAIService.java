@@ -5,14 +5,33 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import ma.startup.platform.pitchservice.dto.StartupDTO;
 import ma.startup.platform.pitchservice.exception.AIException;
+import ma.startup.platform.pitchservice.exception.AIRateLimitException;
+import ma.startup.platform.pitchservice.exception.AIUnavailableException;
 import ma.startup.platform.pitchservice.model.PitchType;
+import ma.startup.platform.pitchservice.service.AIConcurrencyLimiter;
+import ma.startup.platform.pitchservice.service.AIMetrics;
+import ma.startup.platform.pitchservice.service.AIModelRouter;
+import ma.startup.platform.pitchservice.service.AIResilience;
+import ma.startup.platform.pitchservice.service.AIResponseCache;
 import ma.startup.platform.pitchservice.service.AIService;
+import ma.startup.platform.pitchservice.service.AISingleFlight;
+import ma.startup.platform.pitchservice.service.PromptTemplateEngine;
+import ma.startup.platform.pitchservice.service.StartupTokenUsageService;
+import ma.startup.platform.pitchservice.service.TokenUsage;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Service utilisant l'API Groq (ULTRA RAPIDE ET GRATUIT)
@@ -23,25 +42,57 @@ import java.util.*;
  * - Très rapide (inference en millisecondes)
  * - API stable et fiable
  * - Compatible OpenAI format
+ *
+ * Le modèle est choisi à chaque appel par AIModelRouter (selon le type de pitch et la santé des modèles).
+ * Les prompts sont construits par PromptTemplateEngine à partir des templates du secteur.
+ * Latences et jetons consommés sont publiés via AIMetrics ; les jetons sont aussi imputés à la startup
+ * (StartupTokenUsageService), dont le quota est vérifié avant tout appel sortant.
  */
 @Service
 @Slf4j
 public class GroqAIService implements AIService {
 
-    private static final String GROQ_API_URL = "https://api.groq.com/openai/v1/chat/completions";
+    private static final double TEMPERATURE = 0.7;
+    private static final int MAX_TOKENS = 500;
+
+    @Value("${groq.api.url:https://api.groq.com/openai/v1/chat/completions}")
+    private String apiUrl;
 
     @Value("${groq.api.key:}")
     private String apiKey;
 
-    @Value("${groq.model:llama3-8b-8192}")
-    private String model;
-
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
-
-    public GroqAIService() {
-        this.restTemplate = new RestTemplate();
+    private final AIResponseCache responseCache;
+    private final AISingleFlight singleFlight;
+    private final AIConcurrencyLimiter limiter;
+    private final AIResilience resilience;
+    private final AIModelRouter router;
+    private final PromptTemplateEngine promptEngine;
+    private final AIMetrics metrics;
+    private final StartupTokenUsageService tokenUsage;
+
+    public GroqAIService(
+            @Qualifier("aiRestTemplate") RestTemplate restTemplate,
+            AIResponseCache responseCache,
+            AISingleFlight singleFlight,
+            AIConcurrencyLimiter limiter,
+            AIResilience resilience,
+            AIModelRouter router,
+            PromptTemplateEngine promptEngine,
+            AIMetrics metrics,
+            StartupTokenUsageService tokenUsage
+    ) {
+        this.restTemplate = restTemplate;
         this.objectMapper = new ObjectMapper();
+        this.responseCache = responseCache;
+        this.singleFlight = singleFlight;
+        this.limiter = limiter;
+        this.resilience = resilience;
+        this.router = router;
+        this.promptEngine = promptEngine;
+        this.metrics = metrics;
+        this.tokenUsage = tokenUsage;
     }
 
     @Override
@@ -51,51 +102,130 @@ public class GroqAIService implements AIService {
             String cible,
             String avantage,
             StartupDTO startup,
-            PitchType type
+            PitchType type,
+            boolean bypassCache
     ) {
-        log.info("🚀 Génération avec Groq - Modèle: {}", model);
+        String prompt = promptEngine.render(probleme, solution, cible, avantage, startup, type);
+
+        return metrics.time("generatePitch", type, () -> {
+            try {
+                String response = cachedCall(prompt, type, startupId(startup), bypassCache);
+                log.info("✅ Pitch généré en <1s avec Groq");
+                return cleanResponse(response);
+            } catch (AIRateLimitException | AIUnavailableException e) {
+                throw e;
+            } catch (Exception e) {
+                log.error("❌ Erreur Groq: {}", e.getMessage());
+                throw new AIException("Erreur génération Groq", e);
+            }
+        });
+    }
 
-        String prompt = buildPrompt(probleme, solution, cible, avantage, startup, type);
+    @Override
+    public String streamPitch(
+            String probleme,
+            String solution,
+            String cible,
+            String avantage,
+            StartupDTO startup,
+            PitchType type,
+            boolean bypassCache,
+            Consumer<String> onToken
+    ) {
+        String model = router.select(type);
+        log.info("🚀 Génération en streaming avec Groq - Modèle: {}", model);
+
+        String prompt = promptEngine.render(probleme, solution, cible, avantage, startup, type);
+        String key = responseCache.key(model, prompt, TEMPERATURE, MAX_TOKENS);
+
+        return metrics.time("streamPitch", type, () -> {
+            if (bypassCache) {
+                responseCache.recordBypass();
+            } else {
+                Optional<String> cached = responseCache.get(key);
+                if (cached.isPresent()) {
+                    String pitch = cleanResponse(cached.get());
+                    onToken.accept(pitch);
+                    return pitch;
+                }
+            }
 
-        try {
-            String response = callGroqAPI(prompt);
-            log.info("✅ Pitch généré en <1s avec Groq");
+            UUID startupId = startupId(startup);
+            tokenUsage.checkQuota(startupId);
+            String response = resilience.executeOnce(
+                    () -> callGroqAPIStreaming(model, prompt, startupId, type, onToken));
+            responseCache.put(key, model, type, response);
+            log.info("✅ Streaming Groq terminé - {} caractères", response.length());
             return cleanResponse(response);
-        } catch (Exception e) {
-            log.error("❌ Erreur Groq: {}", e.getMessage());
-            throw new AIException("Erreur génération Groq", e);
-        }
+        });
     }
 
     @Override
-    public String improvePitch(String pitchExistant, String suggestions) {
+    public String improvePitch(String pitchExistant, String suggestions, StartupDTO startup, PitchType type) {
         String prompt = String.format(
                 "Améliore ce pitch selon ces suggestions:\n\nPitch: %s\n\nSuggestions: %s\n\nPitch amélioré:",
                 pitchExistant, suggestions
         );
 
-        try {
-            return cleanResponse(callGroqAPI(prompt));
-        } catch (Exception e) {
-            throw new AIException("Erreur amélioration", e);
-        }
+        return metrics.time("improvePitch", type, () -> {
+            try {
+                return cleanResponse(cachedCall(prompt, type, startupId(startup), false));
+            } catch (AIRateLimitException | AIUnavailableException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new AIException("Erreur amélioration", e);
+            }
+        });
     }
 
     @Override
-    public String generateSuggestions(String pitch) {
+    public String generateSuggestions(String pitch, StartupDTO startup) {
         String prompt = String.format(
                 "Analyse ce pitch et donne 3-5 suggestions d'amélioration:\n\n%s\n\nSuggestions:",
                 pitch
         );
 
-        try {
-            return cleanResponse(callGroqAPI(prompt));
-        } catch (Exception e) {
-            throw new AIException("Erreur suggestions", e);
+        return metrics.time("generateSuggestions", null, () -> {
+            try {
+                return cleanResponse(cachedCall(prompt, null, startupId(startup), false));
+            } catch (AIRateLimitException | AIUnavailableException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new AIException("Erreur suggestions", e);
+            }
+        });
+    }
+
+    /**
+     * Passe par le cache de réponses avant d'appeler Groq ; le TTL dépend du type de pitch.
+     * Les appels identiques simultanés (même clé de cache) partagent une seule requête Groq,
+     * elle-même protégée par le circuit breaker, les nouvelles tentatives et le hedging.
+     * Seul un appel réellement envoyé à Groq est soumis au quota de la startup et lui est imputé.
+     */
+    private String cachedCall(String prompt, PitchType type, UUID startupId, boolean bypassCache) {
+        String model = router.select(type);
+        log.info("🚀 Génération avec Groq - Modèle: {}", model);
+        String key = responseCache.key(model, prompt, TEMPERATURE, MAX_TOKENS);
+
+        if (bypassCache) {
+            responseCache.recordBypass();
+        } else {
+            Optional<String> cached = responseCache.get(key);
+            if (cached.isPresent()) {
+                log.info("♻️ Réponse Groq servie depuis le cache");
+                return cached.get();
+            }
         }
+
+        tokenUsage.checkQuota(startupId);
+        return singleFlight.execute(key, () -> {
+            String response = resilience.execute(() -> callGroqAPI(model, prompt, startupId, type));
+            responseCache.put(key, model, type, response);
+            return response;
+        });
     }
 
-    private String callGroqAPI(String prompt) {
+    private Map<String, Object> buildRequestBody(String model, String prompt, boolean stream) {
         // Format OpenAI-compatible
         Map<String, Object> message = new HashMap<>();
         message.put("role", "user");
@@ -104,40 +234,177 @@ public class GroqAIService implements AIService {
         Map<String, Object> requestBody = new HashMap<>();
         requestBody.put("model", model);
         requestBody.put("messages", List.of(message));
-        requestBody.put("temperature", 0.7);
-        requestBody.put("max_tokens", 500);
+        requestBody.put("temperature", TEMPERATURE);
+        requestBody.put("max_tokens", MAX_TOKENS);
         requestBody.put("top_p", 1);
-        requestBody.put("stream", false);
+        requestBody.put("stream", stream);
+        return requestBody;
+    }
 
+    private String callGroqAPI(String model, String prompt, UUID startupId, PitchType type) {
+        long start = System.nanoTime();
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.set("Authorization", "Bearer " + apiKey);
 
-        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
+        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(buildRequestBody(model, prompt, false), headers);
 
         try {
-            ResponseEntity<String> response = restTemplate.exchange(
-                    GROQ_API_URL,
+            ResponseEntity<String> response = limitedExchange(model, () -> restTemplate.exchange(
+                    apiUrl,
                     HttpMethod.POST,
                     entity,
                     String.class
-            );
+            ));
 
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                return extractResponse(response.getBody());
+                String content = extractResponse(model, startupId, type, response.getBody());
+                router.onSuccess(model, elapsedMs(start));
+                return content;
             }
 
             throw new AIException("Réponse invalide");
 
+        } catch (AIRateLimitException | AIUnavailableException e) {
+            // Refus local (file du limiteur pleine, échéance dépassée, breaker ouvert) : pas une erreur du modèle.
+            // Les 429 réellement renvoyés par Groq sont comptés dans limitedExchange.
+            throw e;
         } catch (Exception e) {
+            recordFailure(model, start, e);
             log.error("Erreur API Groq: {}", e.getMessage());
             throw new AIException("Erreur communication Groq", e);
         }
     }
 
-    private String extractResponse(String jsonResponse) {
+    /**
+     * Exécute un appel Groq sous le contrôle du limiteur adaptatif.
+     * Un 429 suspend les appels pendant le Retry-After annoncé puis relance la requête,
+     * tant que l'échéance d'attente n'est pas dépassée ; chaque 429 compte comme un échec du modèle pour le routeur.
+     */
+    private ResponseEntity<String> limitedExchange(String model, Supplier<ResponseEntity<String>> exchange) {
+        long deadline = limiter.newDeadline();
+        while (true) {
+            long start = limiter.acquire(deadline);
+            try {
+                ResponseEntity<String> response = exchange.get();
+                limiter.onSuccess(start, response.getHeaders());
+                return response;
+            } catch (HttpClientErrorException.TooManyRequests e) {
+                limiter.onRateLimited(start, e.getResponseHeaders());
+                router.onFailure(model, elapsedMs(start));
+            } catch (HttpClientErrorException e) {
+                limiter.onIgnored(start);
+                throw e;
+            } catch (RuntimeException e) {
+                // Seules les erreurs de charge (5xx, timeout, réseau) réduisent la limite ; une déconnexion
+                // du client SSE pendant la lecture du flux n'a rien à voir avec le fournisseur
+                if (AIResilience.isTransient(e)) {
+                    limiter.onError(start);
+                } else {
+                    limiter.onIgnored(start);
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Appel Groq avec "stream": true : lit les événements SSE "data: {...}" ligne par ligne
+     * et transmet chaque delta de contenu dès sa réception.
+     * La latence rapportée au routeur est celle du premier fragment, pas celle du flux complet.
+     */
+    private String callGroqAPIStreaming(String model, String prompt, UUID startupId, PitchType type,
+                                        Consumer<String> onToken) {
+        long start = System.nanoTime();
+        long[] firstTokenMs = {-1};
+        try {
+            String response = limitedExchange(model, () -> restTemplate.execute(
+                    apiUrl,
+                    HttpMethod.POST,
+                    request -> {
+                        request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                        request.getHeaders().setAccept(List.of(MediaType.TEXT_EVENT_STREAM));
+                        request.getHeaders().set("Authorization", "Bearer " + apiKey);
+                        objectMapper.writeValue(request.getBody(), buildRequestBody(model, prompt, true));
+                    },
+                    clientResponse -> {
+                        StringBuilder content = new StringBuilder();
+                        try (BufferedReader reader = new BufferedReader(
+                                new InputStreamReader(clientResponse.getBody(), StandardCharsets.UTF_8))) {
+                            String line;
+                            while ((line = reader.readLine()) != null) {
+                                if (!line.startsWith("data:")) {
+                                    continue;
+                                }
+                                String data = line.substring("data:".length()).trim();
+                                if ("[DONE]".equals(data)) {
+                                    break;
+                                }
+                                JsonNode event = objectMapper.readTree(data);
+                                recordUsage(model, startupId, type, event);
+                                String delta = event
+                                        .path("choices").path(0)
+                                        .path("delta").path("content")
+                                        .asText("");
+                                if (!delta.isEmpty()) {
+                                    if (firstTokenMs[0] < 0) {
+                                        firstTokenMs[0] = elapsedMs(start);
+                                    }
+                                    content.append(delta);
+                                    onToken.accept(delta);
+                                }
+                            }
+                        }
+                        return new ResponseEntity<>(content.toString(), clientResponse.getHeaders(),
+                                clientResponse.getStatusCode());
+                    }
+            )).getBody();
+
+            if (response == null || response.isEmpty()) {
+                throw new AIException("Réponse invalide");
+            }
+            router.onSuccess(model, firstTokenMs[0] >= 0 ? firstTokenMs[0] : elapsedMs(start));
+            return response;
+
+        } catch (AIRateLimitException | AIUnavailableException e) {
+            // Refus local (file du limiteur pleine, échéance dépassée, breaker ouvert) : pas une erreur du modèle.
+            // Les 429 réellement renvoyés par Groq sont comptés dans limitedExchange.
+            throw e;
+        } catch (Exception e) {
+            recordFailure(model, start, e);
+            log.error("Erreur streaming Groq: {}", e.getMessage());
+            throw new AIException("Erreur communication Groq", e);
+        }
+    }
+
+    /**
+     * Seules les erreurs imputables au modèle (5xx, timeouts, réseau) dégradent ses statistiques de routage
+     */
+    private void recordFailure(String model, long start, Exception error) {
+        if (AIResilience.isTransient(error)) {
+            router.onFailure(model, elapsedMs(start));
+        }
+    }
+
+    private void recordUsage(String model, UUID startupId, PitchType type, JsonNode response) {
+        TokenUsage.from(response).ifPresent(usage -> {
+            metrics.recordUsage(model, usage);
+            tokenUsage.record(startupId, type, usage);
+        });
+    }
+
+    private static UUID startupId(StartupDTO startup) {
+        return startup != null ? startup.getId() : null;
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private String extractResponse(String model, UUID startupId, PitchType type, String jsonResponse) {
         try {
             JsonNode root = objectMapper.readTree(jsonResponse);
+            recordUsage(model, startupId, type, root);
             JsonNode choices = root.path("choices");
 
             if (choices.isArray() && choices.size() > 0) {
@@ -153,43 +420,6 @@ public class GroqAIService implements AIService {
         }
     }
 
-    private String buildPrompt(
-            String probleme,
-            String solution,
-            String cible,
-            String avantage,
-            StartupDTO startup,
-            PitchType type
-    ) {
-        StringBuilder prompt = new StringBuilder();
-
-        prompt.append("Tu es un expert en pitchs de start-ups.\n\n");
-        prompt.append("Génère un pitch professionnel EN FRANÇAIS pour:\n\n");
-        prompt.append("Startup: ").append(startup.getNom()).append("\n");
-        prompt.append("Secteur: ").append(startup.getSecteur()).append("\n");
-        prompt.append("Problème: ").append(probleme).append("\n");
-        prompt.append("Solution: ").append(solution).append("\n");
-        prompt.append("Cible: ").append(cible).append("\n");
-        prompt.append("Avantage: ").append(avantage).append("\n\n");
-
-        switch (type) {
-            case ELEVATOR:
-                prompt.append("Crée un elevator pitch de 120-150 mots.\n");
-                break;
-            case DECK:
-                prompt.append("Crée une structure pitch deck complète.\n");
-                break;
-            case VALUE_PROP:
-                prompt.append("Crée une proposition de valeur de 80-100 mots.\n");
-                break;
-        }
-
-        prompt.append("\nRéponds UNIQUEMENT avec le pitch, sans introduction.\n");
-        prompt.append("Langue: FRANÇAIS\n");
-
-        return prompt.toString();
-    }
-
     private String cleanResponse(String response) {
         if (response == null) return "";
 
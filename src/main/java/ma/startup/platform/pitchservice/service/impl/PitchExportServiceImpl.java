@@ -0,0 +1,177 @@
+package ma.startup.platform.pitchservice.service.impl;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import lombok.extern.slf4j.Slf4j;
+import ma.startup.platform.pitchservice.dto.PitchImportFormat;
+import ma.startup.platform.pitchservice.model.Pitch;
+import ma.startup.platform.pitchservice.repository.PitchRepository;
+import ma.startup.platform.pitchservice.service.PitchExportService;
+import ma.startup.platform.pitchservice.service.RequestContextResolver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Export en flux : les pitchs sont lus par curseur JDBC (fetch size configurable), détachés un à un
+ * et écrits aussitôt en NDJSON ou CSV. La mémoire utilisée ne dépend pas du nombre de lignes.
+ *
+ * La lecture se fait dans une transaction en lecture seule (nécessaire au curseur PostgreSQL),
+ * qui reste ouverte pendant l'écriture de la réponse.
+ */
+@Service
+@Slf4j
+public class PitchExportServiceImpl implements PitchExportService {
+
+    // Mêmes noms de champs que l'import (id et updatedAt y sont ignorés)
+    private static final String[] COLUMNS = {
+            "id", "type", "probleme", "solution", "cible", "avantage", "pitchGenere",
+            "rating", "isFavorite", "createdAt", "updatedAt"
+    };
+    private static final SerializableString[] JSON_FIELDS = new SerializableString[COLUMNS.length];
+
+    static {
+        for (int i = 0; i < COLUMNS.length; i++) {
+            JSON_FIELDS[i] = new SerializedString(COLUMNS[i]);
+        }
+    }
+
+    private final PitchRepository pitchRepository;
+    private final RequestContextResolver requestContextResolver;
+    private final TransactionTemplate readOnlyTransaction;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final CsvMapper csvMapper = new CsvMapper();
+    private final CsvSchema csvSchema;
+    private final int fetchSize;
+
+    public PitchExportServiceImpl(
+            PitchRepository pitchRepository,
+            RequestContextResolver requestContextResolver,
+            PlatformTransactionManager transactionManager,
+            @Value("${pitch.export.fetch-size:500}") int fetchSize
+    ) {
+        this.pitchRepository = pitchRepository;
+        this.requestContextResolver = requestContextResolver;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fetchSize = fetchSize;
+
+        CsvSchema.Builder schema = CsvSchema.builder().setUseHeader(true);
+        for (String column : COLUMNS) {
+            schema.addColumn(column);
+        }
+        this.csvSchema = schema.build();
+    }
+
+    @Override
+    public PitchExport open(String authToken, PitchImportFormat format, boolean favoritesOnly) {
+        UUID startupId = requestContextResolver.resolve(authToken).getStartup().getId();
+
+        return out -> {
+            long start = System.nanoTime();
+            try {
+                Long rows = readOnlyTransaction.execute(status -> {
+                    try (Stream<Pitch> pitchs = pitchRepository.streamAll(startupId, favoritesOnly, fetchSize)) {
+                        return format == PitchImportFormat.CSV
+                                ? writeCsv(pitchs.iterator(), out)
+                                : writeNdjson(pitchs.iterator(), out);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                log.info("Export {} terminé pour la startup {} : {} pitchs en {} ms", format, startupId, rows,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                return rows;
+            } catch (UncheckedIOException e) {
+                // Client parti en cours de téléchargement : la transaction a été annulée, le curseur fermé
+                log.warn("Export {} interrompu pour la startup {}: {}", format, startupId, e.getCause().getMessage());
+                throw e.getCause();
+            }
+        };
+    }
+
+    private long writeNdjson(Iterator<Pitch> pitchs, OutputStream out) throws IOException {
+        long rows = 0;
+        try (JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            while (pitchs.hasNext()) {
+                Object[] values = values(pitchs.next());
+                generator.writeStartObject();
+                for (int i = 0; i < values.length; i++) {
+                    generator.writeFieldName(JSON_FIELDS[i]);
+                    writeJsonValue(generator, values[i]);
+                }
+                generator.writeEndObject();
+                rows++;
+            }
+            if (rows > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+        return rows;
+    }
+
+    private long writeCsv(Iterator<Pitch> pitchs, OutputStream out) throws IOException {
+        long rows = 0;
+        try (SequenceWriter writer = csvMapper.writer(csvSchema)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .writeValues(out)) {
+            while (pitchs.hasNext()) {
+                Object[] values = values(pitchs.next());
+                // Cellule vide pour null : le générateur CSV décale sinon les colonnes suivantes
+                for (int i = 0; i < values.length; i++) {
+                    if (values[i] == null) {
+                        values[i] = "";
+                    }
+                }
+                writer.write(values);
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static Object[] values(Pitch pitch) {
+        return new Object[]{
+                pitch.getId() != null ? pitch.getId().toString() : null,
+                pitch.getType() != null ? pitch.getType().name() : null,
+                pitch.getProbleme(),
+                pitch.getSolution(),
+                pitch.getCible(),
+                pitch.getAvantage(),
+                pitch.getPitchGenere(),
+                pitch.getRating(),
+                pitch.getIsFavorite(),
+                pitch.getCreatedAt() != null ? pitch.getCreatedAt().toString() : null,
+                pitch.getUpdatedAt() != null ? pitch.getUpdatedAt().toString() : null
+        };
+    }
+
+    private static void writeJsonValue(JsonGenerator generator, Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof Integer number) {
+            generator.writeNumber(number);
+        } else if (value instanceof Boolean bool) {
+            generator.writeBoolean(bool);
+        } else {
+            generator.writeString(value.toString());
+        }
+    }
+}
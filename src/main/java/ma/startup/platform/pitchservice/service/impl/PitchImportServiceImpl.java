@@ -0,0 +1,348 @@
+package ma.startup.platform.pitchservice.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import lombok.extern.slf4j.Slf4j;
+import ma.startup.platform.pitchservice.dto.PitchImportFormat;
+import ma.startup.platform.pitchservice.dto.PitchImportReportDTO;
+import ma.startup.platform.pitchservice.model.Pitch;
+import ma.startup.platform.pitchservice.model.PitchType;
+import ma.startup.platform.pitchservice.repository.PitchBulkRepository;
+import ma.startup.platform.pitchservice.service.PitchImportService;
+import ma.startup.platform.pitchservice.service.PitchSimilarityIndex;
+import ma.startup.platform.pitchservice.service.RequestContextResolver;
+import ma.startup.platform.pitchservice.service.StartupPitchStatsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Import en masse : le corps est lu ligne par ligne, les pitchs valides sont insérés par lots JDBC,
+ * chaque lot dans sa propre transaction avec la mise à jour des statistiques de la startup.
+ *
+ * Un lot refusé par la base est rejoué ligne par ligne pour isoler les lignes fautives ;
+ * les autres lignes du lot sont importées normalement.
+ */
+@Service
+@Slf4j
+public class PitchImportServiceImpl implements PitchImportService {
+
+    private final PitchBulkRepository bulkRepository;
+    private final StartupPitchStatsService statsService;
+    private final PitchSimilarityIndex similarityIndex;
+    private final RequestContextResolver requestContextResolver;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CsvMapper csvMapper = new CsvMapper();
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public PitchImportServiceImpl(
+            PitchBulkRepository bulkRepository,
+            StartupPitchStatsService statsService,
+            PitchSimilarityIndex similarityIndex,
+            RequestContextResolver requestContextResolver,
+            TransactionTemplate transactionTemplate,
+            @Value("${pitch.import.batch-size:500}") int batchSize,
+            @Value("${pitch.import.max-reported-errors:100}") int maxReportedErrors
+    ) {
+        this.bulkRepository = bulkRepository;
+        this.statsService = statsService;
+        this.similarityIndex = similarityIndex;
+        this.requestContextResolver = requestContextResolver;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    @Override
+    public PitchImportReportDTO importPitchs(InputStream body, PitchImportFormat format, String authToken) {
+        long start = System.nanoTime();
+        UUID startupId = requestContextResolver.resolve(authToken).getStartup().getId();
+        log.info("Début d'import {} pour la startup {}", format, startupId);
+
+        Progress progress = new Progress();
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+
+        try (RowReader reader = open(body, format)) {
+            ParsedRow row;
+            while ((row = reader.next()) != null) {
+                progress.totalRows++;
+                if (row.error() != null) {
+                    progress.fail(row.number(), row.error());
+                    continue;
+                }
+                try {
+                    batch.add(new ImportRow(row.number(), toPitch(row.values(), startupId)));
+                } catch (IllegalArgumentException | DateTimeException e) {
+                    progress.fail(row.number(), e.getMessage());
+                }
+                if (batch.size() >= batchSize) {
+                    insertBatch(batch, progress);
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            // Flux illisible (connexion coupée) : on s'arrête, ce qui a été inséré le reste
+            progress.fail(progress.totalRows + 1, "Lecture interrompue: " + e.getMessage());
+        }
+        if (!batch.isEmpty()) {
+            insertBatch(batch, progress);
+        }
+        similarityIndex.invalidate(startupId);
+
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        double rowsPerSecond = durationMs > 0 ? progress.imported * 1000.0 / durationMs : progress.imported;
+        log.info("Import terminé : {} importés, {} en erreur, {} ms ({} lignes/s)",
+                progress.imported, progress.failed, durationMs, Math.round(rowsPerSecond));
+
+        return PitchImportReportDTO.builder()
+                .totalRows(progress.totalRows)
+                .imported(progress.imported)
+                .failed(progress.failed)
+                .durationMs(durationMs)
+                .rowsPerSecond(rowsPerSecond)
+                .errors(progress.errors)
+                .errorsTruncated(progress.failed > progress.errors.size())
+                .build();
+    }
+
+    private void insertBatch(List<ImportRow> batch, Progress progress) {
+        List<Pitch> pitchs = batch.stream().map(ImportRow::pitch).toList();
+        try {
+            insert(pitchs);
+            progress.imported += pitchs.size();
+        } catch (DataAccessException batchError) {
+            log.warn("Lot de {} lignes refusé, reprise ligne par ligne: {}", batch.size(), batchError.getMessage());
+            for (ImportRow row : batch) {
+                try {
+                    insert(List.of(row.pitch()));
+                    progress.imported++;
+                } catch (DataAccessException rowError) {
+                    progress.fail(row.number(), NestedExceptionUtils.getMostSpecificCause(rowError).getMessage());
+                }
+            }
+        }
+    }
+
+    private void insert(List<Pitch> pitchs) {
+        transactionTemplate.executeWithoutResult(status -> {
+            bulkRepository.insertAll(pitchs, batchSize);
+            statsService.onCreated(pitchs);
+        });
+    }
+
+    private Pitch toPitch(Map<String, String> values, UUID startupId) {
+        LocalDateTime importedAt = LocalDateTime.now();
+        LocalDateTime createdAt = blank(values.get("createdAt"))
+                ? importedAt
+                : LocalDateTime.parse(values.get("createdAt").trim());
+
+        String probleme = required(values, "probleme", 500);
+        String solution = required(values, "solution", 500);
+        String cible = required(values, "cible", 300);
+        String avantage = required(values, "avantage", 300);
+
+        return Pitch.builder()
+                .id(UUID.randomUUID())
+                .startupId(startupId)
+                .probleme(probleme)
+                .solution(solution)
+                .cible(cible)
+                .avantage(avantage)
+                .inputSimhash(PitchSimilarityIndex.signature(probleme, solution, cible, avantage))
+                .pitchGenere(required(values, "pitchGenere", Integer.MAX_VALUE))
+                .type(parseType(values.get("type")))
+                .rating(parseRating(values.get("rating")))
+                .isFavorite(parseBoolean(values.get("isFavorite")))
+                .createdAt(createdAt)
+                // Seule la date de création vient de la source : la dernière modification est l'import
+                .updatedAt(importedAt)
+                .build();
+    }
+
+    private static String required(Map<String, String> values, String field, int maxLength) {
+        String value = values.get(field);
+        if (blank(value)) {
+            throw new IllegalArgumentException("Champ obligatoire manquant: " + field);
+        }
+        if (value.length() > maxLength) {
+            throw new IllegalArgumentException(field + " dépasse " + maxLength + " caractères");
+        }
+        return value;
+    }
+
+    private static PitchType parseType(String value) {
+        if (blank(value)) {
+            return PitchType.ELEVATOR;
+        }
+        try {
+            return PitchType.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Type de pitch inconnu: " + value);
+        }
+    }
+
+    private static Integer parseRating(String value) {
+        if (blank(value)) {
+            return null;
+        }
+        int rating;
+        try {
+            rating = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Note invalide: " + value);
+        }
+        if (rating < 1 || rating > 5) {
+            throw new IllegalArgumentException("Le rating doit être entre 1 et 5");
+        }
+        return rating;
+    }
+
+    private static boolean parseBoolean(String value) {
+        if (blank(value)) {
+            return false;
+        }
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "true" -> true;
+            case "false" -> false;
+            default -> throw new IllegalArgumentException("Valeur isFavorite invalide: " + value);
+        };
+    }
+
+    private static boolean blank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private RowReader open(InputStream body, PitchImportFormat format) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        return format == PitchImportFormat.CSV ? new CsvRowReader(reader) : new NdjsonRowReader(reader);
+    }
+
+    private record ParsedRow(long number, Map<String, String> values, String error) {
+    }
+
+    private record ImportRow(long number, Pitch pitch) {
+    }
+
+    private interface RowReader extends AutoCloseable {
+
+        // Ligne suivante, ou null en fin de flux
+        ParsedRow next() throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    /**
+     * Un objet JSON par ligne ; une ligne illisible n'empêche pas de lire les suivantes
+     */
+    private final class NdjsonRowReader implements RowReader {
+
+        private final BufferedReader reader;
+        private long lineNumber;
+
+        NdjsonRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ParsedRow next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    JsonNode node = objectMapper.readTree(line);
+                    if (!node.isObject()) {
+                        return new ParsedRow(lineNumber, null, "Objet JSON attendu");
+                    }
+                    Map<String, String> values = new HashMap<>();
+                    node.fields().forEachRemaining(field ->
+                            values.put(field.getKey(), field.getValue().isNull() ? null : field.getValue().asText()));
+                    return new ParsedRow(lineNumber, values, null);
+                } catch (JsonProcessingException e) {
+                    return new ParsedRow(lineNumber, null, "JSON invalide: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * CSV avec en-tête (noms de champs identiques au JSON) ; les champs entre guillemets peuvent contenir
+     * virgules et retours à la ligne. Les lignes sont numérotées à partir de 1, en-tête exclu.
+     * Une ligne mal formée est signalée puis ignorée : MappingIterator se resynchronise sur la suivante.
+     */
+    private final class CsvRowReader implements RowReader {
+
+        private final MappingIterator<Map<String, String>> rows;
+        private long rowNumber;
+
+        CsvRowReader(BufferedReader reader) throws IOException {
+            CsvSchema schema = CsvSchema.emptySchema().withHeader();
+            this.rows = csvMapper.readerFor(Map.class).with(schema).readValues(reader);
+        }
+
+        @Override
+        public ParsedRow next() throws IOException {
+            if (!rows.hasNextValue()) {
+                return null;
+            }
+            rowNumber++;
+            try {
+                return new ParsedRow(rowNumber, rows.nextValue(), null);
+            } catch (JsonProcessingException e) {
+                return new ParsedRow(rowNumber, null, "CSV invalide: " + e.getOriginalMessage());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            rows.close();
+        }
+    }
+
+    private final class Progress {
+
+        private long totalRows;
+        private long imported;
+        private long failed;
+        private final List<PitchImportReportDTO.RowError> errors = new ArrayList<>();
+
+        void fail(long row, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(PitchImportReportDTO.RowError.builder().row(row).message(message).build());
+            }
+        }
+    }
+}
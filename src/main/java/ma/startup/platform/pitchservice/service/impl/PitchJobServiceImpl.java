@@ -0,0 +1,200 @@
+package ma.startup.platform.pitchservice.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import ma.startup.platform.pitchservice.dto.PitchJobDTO;
+import ma.startup.platform.pitchservice.dto.PitchRequestDTO;
+import ma.startup.platform.pitchservice.dto.PitchResponseDTO;
+import ma.startup.platform.pitchservice.dto.RequestContext;
+import ma.startup.platform.pitchservice.exception.GenerationQueueFullException;
+import ma.startup.platform.pitchservice.exception.PitchJobNotFoundException;
+import ma.startup.platform.pitchservice.model.PitchJobStatus;
+import ma.startup.platform.pitchservice.service.PitchJobService;
+import ma.startup.platform.pitchservice.service.PitchService;
+import ma.startup.platform.pitchservice.service.RequestContextResolver;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Génération de pitchs en arrière-plan sur un pool borné.
+ * Les tâches sont conservées en mémoire le temps que le client vienne chercher le résultat.
+ * L'identité résolue à la soumission est conservée avec la tâche : aucun appel Auth/Startup après l'attente en file.
+ *
+ * Métriques : pitch.jobs.queue.depth et pitch.jobs.active (jauges), pitch.jobs.submitted et pitch.jobs.rejected,
+ * pitch.jobs.wait (attente en file) et pitch.jobs.run (exécution, par issue).
+ */
+@Service
+@Slf4j
+public class PitchJobServiceImpl implements PitchJobService {
+
+    private final PitchService pitchService;
+    private final RequestContextResolver requestContextResolver;
+    private final ThreadPoolTaskExecutor generationExecutor;
+    private final Cache<UUID, PitchJob> jobs;
+
+    private final Counter submitted;
+    private final Counter rejected;
+    private final Timer waitTimer;
+    private final Timer succeededTimer;
+    private final Timer failedTimer;
+
+    public PitchJobServiceImpl(
+            PitchService pitchService,
+            RequestContextResolver requestContextResolver,
+            @Qualifier("generationExecutor") ThreadPoolTaskExecutor generationExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${pitch.jobs.retention-minutes:60}") long retentionMinutes,
+            @Value("${pitch.jobs.max-retained:10000}") long maxRetained
+    ) {
+        this.pitchService = pitchService;
+        this.requestContextResolver = requestContextResolver;
+        this.generationExecutor = generationExecutor;
+        this.jobs = Caffeine.newBuilder()
+                .maximumSize(maxRetained)
+                .expireAfterWrite(Duration.ofMinutes(retentionMinutes))
+                .build();
+
+        Gauge.builder("pitch.jobs.queue.depth", generationExecutor,
+                        executor -> executor.getThreadPoolExecutor().getQueue().size())
+                .description("Générations en attente dans la file")
+                .register(meterRegistry);
+        Gauge.builder("pitch.jobs.active", generationExecutor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Générations en cours d'exécution")
+                .register(meterRegistry);
+        this.submitted = Counter.builder("pitch.jobs.submitted").register(meterRegistry);
+        this.rejected = Counter.builder("pitch.jobs.rejected").register(meterRegistry);
+        this.waitTimer = Timer.builder("pitch.jobs.wait")
+                .description("Attente en file avant exécution")
+                .register(meterRegistry);
+        this.succeededTimer = Timer.builder("pitch.jobs.run")
+                .description("Durée d'exécution des générations")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        this.failedTimer = Timer.builder("pitch.jobs.run")
+                .description("Durée d'exécution des générations")
+                .tag("outcome", "error")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public PitchJobDTO submit(PitchRequestDTO request, String authToken, boolean regenerate) {
+        // Vérifier l'identité avant de mettre en file, pour échouer immédiatement si le token est invalide
+        RequestContext context = requestContextResolver.resolve(authToken);
+
+        PitchJob job = new PitchJob(UUID.randomUUID(), context);
+        jobs.put(job.id, job);
+
+        try {
+            generationExecutor.execute(() -> run(job, request, regenerate));
+        } catch (TaskRejectedException e) {
+            jobs.invalidate(job.id);
+            rejected.increment();
+            log.warn("File de génération pleine, tâche refusée");
+            throw new GenerationQueueFullException("Trop de générations en cours, réessayez plus tard");
+        }
+
+        submitted.increment();
+        log.info("Tâche de génération {} mise en file", job.id);
+        return toDTO(job);
+    }
+
+    @Override
+    public PitchJobDTO getJob(UUID jobId, String authToken) {
+        UUID startupId = requestContextResolver.resolve(authToken).getStartup().getId();
+
+        PitchJob job = jobs.getIfPresent(jobId);
+        if (job == null || !job.context.getStartup().getId().equals(startupId)) {
+            throw new PitchJobNotFoundException(jobId);
+        }
+        return toDTO(job);
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        long done = succeededTimer.count() + failedTimer.count();
+        double totalRunMs = succeededTimer.totalTime(TimeUnit.MILLISECONDS) + failedTimer.totalTime(TimeUnit.MILLISECONDS);
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("queueDepth", generationExecutor.getThreadPoolExecutor().getQueue().size());
+        stats.put("activeWorkers", generationExecutor.getActiveCount());
+        stats.put("submitted", (long) submitted.count());
+        stats.put("rejected", (long) rejected.count());
+        stats.put("succeeded", succeededTimer.count());
+        stats.put("failed", failedTimer.count());
+        stats.put("avgWaitMs", (long) waitTimer.mean(TimeUnit.MILLISECONDS));
+        stats.put("maxWaitMs", (long) waitTimer.max(TimeUnit.MILLISECONDS));
+        stats.put("avgRunMs", done == 0 ? 0 : (long) (totalRunMs / done));
+        stats.put("maxRunMs", (long) Math.max(succeededTimer.max(TimeUnit.MILLISECONDS),
+                failedTimer.max(TimeUnit.MILLISECONDS)));
+        return stats;
+    }
+
+    private void run(PitchJob job, PitchRequestDTO request, boolean regenerate) {
+        long start = System.nanoTime();
+        waitTimer.record(start - job.submittedNanos, TimeUnit.NANOSECONDS);
+
+        job.status = PitchJobStatus.RUNNING;
+        job.startedAt = LocalDateTime.now();
+        Timer runTimer = failedTimer;
+
+        try {
+            job.result = pitchService.generatePitch(request, job.context, regenerate, null);
+            job.completedAt = LocalDateTime.now();
+            job.status = PitchJobStatus.SUCCEEDED;
+            runTimer = succeededTimer;
+        } catch (Exception e) {
+            log.error("Échec de la tâche de génération {}: {}", job.id, e.getMessage());
+            job.error = e.getMessage();
+            job.completedAt = LocalDateTime.now();
+            job.status = PitchJobStatus.FAILED;
+        } finally {
+            runTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            // Rafraîchit la durée de rétention à partir de la fin de la tâche
+            jobs.put(job.id, job);
+        }
+    }
+
+    private PitchJobDTO toDTO(PitchJob job) {
+        return PitchJobDTO.builder()
+                .jobId(job.id)
+                .status(job.status)
+                .submittedAt(job.submittedAt)
+                .startedAt(job.startedAt)
+                .completedAt(job.completedAt)
+                .result(job.result)
+                .error(job.error)
+                .build();
+    }
+
+    private static final class PitchJob {
+        private final UUID id;
+        private final RequestContext context;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final long submittedNanos = System.nanoTime();
+        private volatile PitchJobStatus status = PitchJobStatus.QUEUED;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime completedAt;
+        private volatile PitchResponseDTO result;
+        private volatile String error;
+
+        private PitchJob(UUID id, RequestContext context) {
+            this.id = id;
+            this.context = context;
+        }
+    }
+}
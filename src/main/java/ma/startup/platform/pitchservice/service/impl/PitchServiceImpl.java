@@ -3,60 +3,105 @@ package ma.startup.platform.pitchservice.service.impl;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import ma.startup.platform.pitchservice.client.AuthServiceClient;
-import ma.startup.platform.pitchservice.client.StartupServiceClient;
 import ma.startup.platform.pitchservice.dto.*;
+import ma.startup.platform.pitchservice.exception.InvalidPitchQueryException;
+import ma.startup.platform.pitchservice.exception.PitchConflictException;
 import ma.startup.platform.pitchservice.exception.PitchNotFoundException;
 import ma.startup.platform.pitchservice.model.Pitch;
 import ma.startup.platform.pitchservice.model.PitchType;
+import ma.startup.platform.pitchservice.repository.PitchCollectionVersionView;
 import ma.startup.platform.pitchservice.repository.PitchRepository;
+import ma.startup.platform.pitchservice.repository.PitchSearchRepository;
+import ma.startup.platform.pitchservice.repository.PitchStateView;
 import ma.startup.platform.pitchservice.service.AIService;
 import ma.startup.platform.pitchservice.service.PitchService;
+import ma.startup.platform.pitchservice.service.PitchSimilarityIndex;
+import ma.startup.platform.pitchservice.service.RequestContextResolver;
+import ma.startup.platform.pitchservice.service.StartupPitchStatsService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import java.util.HashMap;
+import org.springframework.data.domain.Sort;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+/**
+ * Les transactions sont déclarées méthode par méthode : les générations IA (generatePitch, updatePitch,
+ * generatePitchStream) s'exécutent sans transaction et n'écrivent qu'à la fin, dans une transaction courte.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional
 public class PitchServiceImpl implements PitchService {
 
+    private static final int MAX_SEARCH_LENGTH = 200;
+
     private final PitchRepository pitchRepository;
     private final AIService aiService; // ✅ CHANGEMENT: Utilise l'interface générique
-    private final AuthServiceClient authServiceClient;
-    private final StartupServiceClient startupServiceClient;
+    private final RequestContextResolver requestContextResolver;
+    private final StartupPitchStatsService statsService;
+    private final PitchSearchRepository pitchSearchRepository;
+    private final PitchSimilarityIndex similarityIndex;
+    private final TransactionTemplate transactionTemplate;
+    @Qualifier("variantExecutor")
+    private final TaskExecutor variantExecutor;
 
     @Override
-    public PitchResponseDTO generatePitch(PitchRequestDTO request, String authToken) {
+    public PitchResponseDTO generatePitch(PitchRequestDTO request, String authToken, boolean regenerate,
+                                          DuplicateStrategy onDuplicate) {
+        // 1-2. Vérifier l'utilisateur et récupérer la startup (appels parallèles)
+        return generatePitch(request, requestContextResolver.resolve(authToken), regenerate, onDuplicate);
+    }
+
+    @Override
+    public PitchResponseDTO generatePitch(PitchRequestDTO request, RequestContext context, boolean regenerate,
+                                          DuplicateStrategy onDuplicate) {
         log.info("Début de génération de pitch avec Hugging Face");
 
-        // 1. Vérifier l'utilisateur via Auth-Service
-        UserDTO user = authServiceClient.getCurrentUser(authToken);
+        UserDTO user = context.getUser();
         log.info("Utilisateur vérifié: {}", user.getEmail());
 
-        // 2. Récupérer la startup via Startup-Service
-        StartupDTO startup = startupServiceClient.getMyStartup(authToken);
+        StartupDTO startup = context.getStartup();
         log.info("Startup récupérée: {} (ID: {})", startup.getNom(), startup.getId());
 
-        // 3. Générer le pitch avec Hugging Face (AI Service)
+        // 3. Demande quasi identique à un pitch existant : le réutiliser ou l'adapter plutôt que tout régénérer
+        long signature = signature(request);
+        DuplicateStrategy strategy = onDuplicate != null ? onDuplicate : similarityIndex.getDefaultStrategy();
+        if (!regenerate && strategy != DuplicateStrategy.GENERATE) {
+            Optional<PitchResponseDTO> duplicate = handleNearDuplicate(request, startup, signature, strategy);
+            if (duplicate.isPresent()) {
+                return duplicate.get();
+            }
+        }
+
+        // 4. Générer le pitch avec l'IA, hors transaction
         String pitchGenere = aiService.generatePitch(
                 request.getProbleme(),
                 request.getSolution(),
                 request.getCible(),
                 request.getAvantage(),
                 startup,
-                PitchType.ELEVATOR
+                PitchType.ELEVATOR,
+                regenerate
         );
         log.info("Pitch généré avec succès - Longueur: {} caractères", pitchGenere.length());
 
-        // 4. Sauvegarder en base de données
+        // 5. Sauvegarder en base de données, avec les statistiques, dans une transaction courte
         Pitch pitch = Pitch.builder()
                 .startupId(startup.getId())
                 .probleme(request.getProbleme())
@@ -66,21 +111,197 @@ public class PitchServiceImpl implements PitchService {
                 .pitchGenere(pitchGenere)
                 .type(PitchType.ELEVATOR)
                 .isFavorite(false)
+                .inputSimhash(signature)
                 .build();
 
-        Pitch savedPitch = pitchRepository.save(pitch);
+        Pitch savedPitch = saveNew(pitch);
         log.info("Pitch sauvegardé avec ID: {}", savedPitch.getId());
 
         return mapToResponseDTO(savedPitch);
     }
 
+    @Override
+    public PitchResponseDTO generateTestPitch(PitchRequestDTO request, String authToken) {
+        StartupDTO startup = requestContextResolver.resolve(authToken).getStartup();
+
+        // Pitch de test SANS appeler l'IA, sauvegardé avec les statistiques dans la même transaction
+        Pitch pitch = Pitch.builder()
+                .startupId(startup.getId())
+                .probleme(request.getProbleme())
+                .solution(request.getSolution())
+                .cible(request.getCible())
+                .avantage(request.getAvantage())
+                .pitchGenere("PITCH DE TEST : " + startup.getNom() + " résout " + request.getProbleme()
+                        + " avec " + request.getSolution())
+                .type(PitchType.ELEVATOR)
+                .inputSimhash(signature(request))
+                .isFavorite(false)
+                .build();
+
+        return mapToResponseDTO(saveNew(pitch));
+    }
+
+    /**
+     * REUSE : le pitch existant est renvoyé tel quel ; IMPROVE : il est adapté aux nouveaux champs
+     * par improvePitch et enregistré comme nouveau pitch. Vide si aucun pitch assez proche.
+     */
+    private Optional<PitchResponseDTO> handleNearDuplicate(PitchRequestDTO request, StartupDTO startup,
+                                                           long signature, DuplicateStrategy strategy) {
+        Optional<PitchSimilarityIndex.Match> match =
+                similarityIndex.findNearDuplicate(startup.getId(), PitchType.ELEVATOR, signature);
+        if (match.isEmpty()) {
+            return Optional.empty();
+        }
+        UUID existingId = match.get().pitchId();
+        Optional<Pitch> existing = pitchRepository.findByIdAndStartupId(existingId, startup.getId());
+        if (existing.isEmpty()) {
+            // Supprimé par une autre instance
+            similarityIndex.remove(startup.getId(), existingId);
+            return Optional.empty();
+        }
+        log.info("Demande quasi identique au pitch {} (similarité {}) : {}",
+                existingId, String.format("%.2f", match.get().similarity()), strategy);
+
+        PitchResponseDTO response;
+        if (strategy == DuplicateStrategy.REUSE) {
+            response = mapToResponseDTO(existing.get());
+        } else {
+            String improved = aiService.improvePitch(
+                    existing.get().getPitchGenere(), changesSummary(request), startup, PitchType.ELEVATOR);
+            Pitch saved = saveNew(Pitch.builder()
+                    .startupId(startup.getId())
+                    .probleme(request.getProbleme())
+                    .solution(request.getSolution())
+                    .cible(request.getCible())
+                    .avantage(request.getAvantage())
+                    .pitchGenere(improved)
+                    .type(PitchType.ELEVATOR)
+                    .isFavorite(false)
+                    .inputSimhash(signature)
+                    .build());
+            response = mapToResponseDTO(saved);
+        }
+        response.setDuplicateOf(existingId);
+        response.setSimilarity(match.get().similarity());
+        return Optional.of(response);
+    }
+
+    private static String changesSummary(PitchRequestDTO request) {
+        return "Adapte ce pitch aux informations à jour, sans changer son style ni sa longueur :\n"
+                + "Problème: " + request.getProbleme() + "\n"
+                + "Solution: " + request.getSolution() + "\n"
+                + "Cible: " + request.getCible() + "\n"
+                + "Avantage: " + request.getAvantage();
+    }
+
+    private static long signature(PitchRequestDTO request) {
+        return PitchSimilarityIndex.signature(
+                request.getProbleme(), request.getSolution(), request.getCible(), request.getAvantage());
+    }
+
+    @Override
+    public PitchResponseDTO generatePitchStream(PitchRequestDTO request, String authToken, boolean regenerate,
+                                                Consumer<String> onToken) {
+        log.info("Début de génération de pitch en streaming");
+
+        StartupDTO startup = requestContextResolver.resolve(authToken).getStartup();
+
+        // Pas de transaction pendant le flux : seule la sauvegarde finale en ouvre une
+        String pitchGenere = aiService.streamPitch(
+                request.getProbleme(),
+                request.getSolution(),
+                request.getCible(),
+                request.getAvantage(),
+                startup,
+                PitchType.ELEVATOR,
+                regenerate,
+                onToken
+        );
+
+        Pitch pitch = Pitch.builder()
+                .startupId(startup.getId())
+                .probleme(request.getProbleme())
+                .solution(request.getSolution())
+                .cible(request.getCible())
+                .avantage(request.getAvantage())
+                .pitchGenere(pitchGenere)
+                .type(PitchType.ELEVATOR)
+                .isFavorite(false)
+                .inputSimhash(signature(request))
+                .build();
+
+        Pitch savedPitch = saveNew(pitch);
+        log.info("Pitch streamé sauvegardé avec ID: {}", savedPitch.getId());
+
+        return mapToResponseDTO(savedPitch);
+    }
+
+    @Override
+    public List<PitchResponseDTO> generatePitchVariants(PitchRequestDTO request, Set<PitchType> types,
+                                                        String authToken, boolean regenerate) {
+        log.info("Début de génération multi-variantes: {}", types);
+
+        // 1. Identité résolue une seule fois pour toutes les variantes
+        StartupDTO startup = requestContextResolver.resolve(authToken).getStartup();
+
+        // 2. Une génération IA par type, en parallèle et hors transaction
+        long signature = signature(request);
+        List<CompletableFuture<Pitch>> generations = types.stream()
+                .sorted()
+                .map(type -> CompletableFuture.supplyAsync(() -> Pitch.builder()
+                        .startupId(startup.getId())
+                        .probleme(request.getProbleme())
+                        .solution(request.getSolution())
+                        .cible(request.getCible())
+                        .avantage(request.getAvantage())
+                        .pitchGenere(aiService.generatePitch(
+                                request.getProbleme(),
+                                request.getSolution(),
+                                request.getCible(),
+                                request.getAvantage(),
+                                startup,
+                                type,
+                                regenerate
+                        ))
+                        .type(type)
+                        .isFavorite(false)
+                        .inputSimhash(signature)
+                        .build(), variantExecutor))
+                .toList();
+
+        List<Pitch> pitchs;
+        try {
+            pitchs = CompletableFuture.allOf(generations.toArray(CompletableFuture[]::new))
+                    .thenApply(done -> generations.stream().map(CompletableFuture::join).toList())
+                    .join();
+        } catch (CompletionException e) {
+            generations.forEach(generation -> generation.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        log.info("{} variantes générées", pitchs.size());
+
+        // 3. Sauvegarde de toutes les variantes dans une seule transaction courte
+        List<Pitch> savedPitchs = transactionTemplate.execute(status -> {
+            List<Pitch> saved = pitchRepository.saveAll(pitchs);
+            statsService.onCreated(saved);
+            return saved;
+        });
+        savedPitchs.forEach(this::indexSignature);
+
+        return savedPitchs.stream()
+                .map(this::mapToResponseDTO)
+                .collect(Collectors.toList());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<PitchResponseDTO> getMyPitchs(String authToken) {
         log.info("Récupération des pitchs");
 
-        UserDTO user = authServiceClient.getCurrentUser(authToken);
-        StartupDTO startup = startupServiceClient.getMyStartup(authToken);
+        StartupDTO startup = requestContextResolver.resolve(authToken).getStartup();
 
         List<Pitch> pitchs = pitchRepository.findByStartupIdOrderByCreatedAtDesc(startup.getId());
         log.info("Nombre de pitchs trouvés: {}", pitchs.size());
@@ -95,8 +316,7 @@ public class PitchServiceImpl implements PitchService {
     public PitchResponseDTO getPitchById(UUID pitchId, String authToken) {
         log.info("Récupération du pitch ID: {}", pitchId);
 
-        UserDTO user = authServiceClient.getCurrentUser(authToken);
-        StartupDTO startup = startupServiceClient.getMyStartup(authToken);
+        StartupDTO startup = requestContextResolver.resolve(authToken).getStartup();
 
         Pitch pitch = pitchRepository.findByIdAndStartupId(pitchId, startup.getId())
                 .orElseThrow(() -> new PitchNotFoundException(pitchId));
@@ -105,60 +325,123 @@ public class PitchServiceImpl implements PitchService {
     }
 
     @Override
-    public PitchResponseDTO updatePitch(UUID pitchId, PitchRequestDTO request, String authToken) {
-        log.info("Mise à jour du pitch ID: {}", pitchId);
+    @Transactional(readOnly = true)
+    public Optional<PitchResponseDTO> getPitchByIdIfModified(UUID pitchId, String authToken,
+                                                             Predicate<ResourceValidator> notModified) {
+        StartupDTO startup = requestContextResolver.resolve(authToken).getStartup();
 
-        UserDTO user = authServiceClient.getCurrentUser(authToken);
-        StartupDTO startup = startupServiceClient.getMyStartup(authToken);
+        ResourceValidator validator = pitchRepository.findVersionByIdAndStartupId(pitchId, startup.getId())
+                .map(version -> ResourceValidator.forPitch(pitchId, version.getVersion(), version.getUpdatedAt()))
+                .orElseThrow(() -> new PitchNotFoundException(pitchId));
+        if (notModified.test(validator)) {
+            log.debug("Pitch {} non modifié", pitchId);
+            return Optional.empty();
+        }
 
         Pitch pitch = pitchRepository.findByIdAndStartupId(pitchId, startup.getId())
                 .orElseThrow(() -> new PitchNotFoundException(pitchId));
+        return Optional.of(mapToResponseDTO(pitch));
+    }
 
-        // Mettre à jour les champs
-        pitch.setProbleme(request.getProbleme());
-        pitch.setSolution(request.getSolution());
-        pitch.setCible(request.getCible());
-        pitch.setAvantage(request.getAvantage());
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<List<?>> getMyPitchsIfModified(String authToken, boolean favoritesOnly, Set<PitchField> fields,
+                                                   Predicate<ResourceValidator> notModified) {
+        StartupDTO startup = requestContextResolver.resolve(authToken).getStartup();
+        UUID startupId = startup.getId();
+
+        PitchCollectionVersionView version = favoritesOnly
+                ? pitchRepository.findFavoritesCollectionVersion(startupId)
+                : pitchRepository.findCollectionVersion(startupId);
+        ResourceValidator validator = ResourceValidator.forCollection(startupId, favoritesOnly, fields,
+                version.getCount(), version.getLastUpdatedAt());
+        if (notModified.test(validator)) {
+            log.debug("Liste de pitchs non modifiée (favoris: {})", favoritesOnly);
+            return Optional.empty();
+        }
 
-        // Régénérer le pitch avec Hugging Face
+        if (fields != null) {
+            PitchListQuery query = PitchListQuery.builder().favoritesOnly(favoritesOnly).build();
+            List<Map<String, Object>> rows = pitchRepository.findProjected(startupId, query, null, fields, 0, 0);
+            rows.forEach(row -> retainFields(row, fields));
+            return Optional.of(rows);
+        }
+        List<Pitch> pitchs = favoritesOnly
+                ? pitchRepository.findByStartupIdAndIsFavoriteTrueOrderByCreatedAtDesc(startupId)
+                : pitchRepository.findByStartupIdOrderByCreatedAtDesc(startupId);
+        return Optional.of(pitchs.stream()
+                .map(this::mapToResponseDTO)
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public PitchResponseDTO updatePitch(UUID pitchId, PitchRequestDTO request, String authToken) {
+        log.info("Mise à jour du pitch ID: {}", pitchId);
+
+        // 1. Résoudre l'identité
+        StartupDTO startup = requestContextResolver.resolve(authToken).getStartup();
+
+        // 2. Lecture courte : type et version actuels du pitch
+        Pitch current = pitchRepository.findByIdAndStartupId(pitchId, startup.getId())
+                .orElseThrow(() -> new PitchNotFoundException(pitchId));
+        Long expectedVersion = current.getVersion();
+
+        // 3. Régénérer le pitch avec l'IA, sans transaction ni connexion JDBC ouverte
         String newPitch = aiService.generatePitch(
                 request.getProbleme(),
                 request.getSolution(),
                 request.getCible(),
                 request.getAvantage(),
                 startup,
-                pitch.getType()
+                current.getType()
         );
 
-        pitch.setPitchGenere(newPitch);
-
-        Pitch updatedPitch = pitchRepository.save(pitch);
+        // 4. Écriture dans une transaction courte ; échoue si le pitch a changé entre-temps
+        Pitch updatedPitch = transactionTemplate.execute(status -> {
+            Pitch pitch = pitchRepository.findByIdAndStartupId(pitchId, startup.getId())
+                    .orElseThrow(() -> new PitchNotFoundException(pitchId));
+
+            if (!Objects.equals(pitch.getVersion(), expectedVersion)) {
+                throw new PitchConflictException(pitchId);
+            }
+
+            pitch.setProbleme(request.getProbleme());
+            pitch.setSolution(request.getSolution());
+            pitch.setCible(request.getCible());
+            pitch.setAvantage(request.getAvantage());
+            pitch.setPitchGenere(newPitch);
+            pitch.setInputSimhash(signature(request));
+
+            return pitchRepository.saveAndFlush(pitch);
+        });
+        indexSignature(updatedPitch);
         log.info("Pitch mis à jour avec succès");
 
         return mapToResponseDTO(updatedPitch);
     }
 
     @Override
+    @Transactional
     public void deletePitch(UUID pitchId, String authToken) {
         log.info("Suppression du pitch ID: {}", pitchId);
 
-        UserDTO user = authServiceClient.getCurrentUser(authToken);
-        StartupDTO startup = startupServiceClient.getMyStartup(authToken);
+        StartupDTO startup = requestContextResolver.resolve(authToken).getStartup();
 
-        if (!pitchRepository.existsByIdAndStartupId(pitchId, startup.getId())) {
-            throw new PitchNotFoundException(pitchId);
-        }
+        Pitch pitch = pitchRepository.findByIdAndStartupId(pitchId, startup.getId())
+                .orElseThrow(() -> new PitchNotFoundException(pitchId));
 
-        pitchRepository.deleteById(pitchId);
+        pitchRepository.delete(pitch);
+        statsService.onDeleted(pitch);
+        similarityIndex.remove(startup.getId(), pitchId);
         log.info("Pitch supprimé avec succès");
     }
 
     @Override
+    @Transactional
     public PitchResponseDTO toggleFavorite(UUID pitchId, String authToken) {
         log.info("Toggle favori pour pitch ID: {}", pitchId);
 
-        UserDTO user = authServiceClient.getCurrentUser(authToken);
-        StartupDTO startup = startupServiceClient.getMyStartup(authToken);
+        StartupDTO startup = requestContextResolver.resolve(authToken).getStartup();
 
         Pitch pitch = pitchRepository.findByIdAndStartupId(pitchId, startup.getId())
                 .orElseThrow(() -> new PitchNotFoundException(pitchId));
@@ -166,12 +449,14 @@ public class PitchServiceImpl implements PitchService {
         pitch.setIsFavorite(!pitch.getIsFavorite());
 
         Pitch updatedPitch = pitchRepository.save(pitch);
+        statsService.onFavoriteChanged(startup.getId(), updatedPitch.getIsFavorite());
         log.info("Favori modifié: {}", updatedPitch.getIsFavorite());
 
         return mapToResponseDTO(updatedPitch);
     }
 
     @Override
+    @Transactional
     public PitchResponseDTO ratePitch(UUID pitchId, Integer rating, String authToken) {
         log.info("Notation du pitch ID: {} avec note: {}", pitchId, rating);
 
@@ -179,27 +464,107 @@ public class PitchServiceImpl implements PitchService {
             throw new IllegalArgumentException("Le rating doit être entre 1 et 5");
         }
 
-        UserDTO user = authServiceClient.getCurrentUser(authToken);
-        StartupDTO startup = startupServiceClient.getMyStartup(authToken);
+        StartupDTO startup = requestContextResolver.resolve(authToken).getStartup();
 
         Pitch pitch = pitchRepository.findByIdAndStartupId(pitchId, startup.getId())
                 .orElseThrow(() -> new PitchNotFoundException(pitchId));
 
+        Integer previousRating = pitch.getRating();
         pitch.setRating(rating);
 
         Pitch updatedPitch = pitchRepository.save(pitch);
+        statsService.onRated(startup.getId(), previousRating, rating);
         log.info("Pitch noté avec succès");
 
         return mapToResponseDTO(updatedPitch);
     }
 
+    @Override
+    @Transactional
+    public BulkPitchResultDTO bulkUpdate(BulkPitchRequestDTO request, String authToken) {
+        BulkPitchOperation operation = request.getOperation();
+        log.info("Opération en masse {} sur {} pitchs", operation, request.getIds().size());
+
+        if (operation == BulkPitchOperation.RATE
+                && (request.getRating() == null || request.getRating() < 1 || request.getRating() > 5)) {
+            throw new InvalidPitchQueryException("Le rating doit être entre 1 et 5");
+        }
+
+        StartupDTO startup = requestContextResolver.resolve(authToken).getStartup();
+        UUID startupId = startup.getId();
+
+        // 1. État actuel des pitchs ciblés de la startup (verrouillés) : IDs modifiés et variations des statistiques
+        List<PitchStateView> states = pitchRepository.lockStates(startupId, Set.copyOf(request.getIds()));
+
+        // 2. Une seule requête UPDATE/DELETE pour toute la liste. updated_at prend l'heure de la JVM,
+        // comme @UpdateTimestamp sur les mises à jour unitaires (et non l'horloge de la base)
+        LocalDateTime now = LocalDateTime.now();
+        List<PitchStateView> affected;
+        switch (operation) {
+            case FAVORITE, UNFAVORITE -> {
+                boolean favorite = operation == BulkPitchOperation.FAVORITE;
+                affected = states.stream()
+                        .filter(state -> Boolean.TRUE.equals(state.getIsFavorite()) != favorite)
+                        .toList();
+                if (!affected.isEmpty()) {
+                    pitchRepository.updateFavorite(startupId, ids(affected), favorite, now);
+                    statsService.onFavoriteChanged(startupId, favorite, affected.size());
+                }
+            }
+            case RATE -> {
+                Integer rating = request.getRating();
+                affected = states.stream()
+                        .filter(state -> !rating.equals(state.getRating()))
+                        .toList();
+                if (!affected.isEmpty()) {
+                    pitchRepository.updateRating(startupId, ids(affected), rating, now);
+                    long previousSum = affected.stream()
+                            .map(PitchStateView::getRating)
+                            .filter(Objects::nonNull)
+                            .mapToLong(Integer::longValue)
+                            .sum();
+                    long previouslyRated = affected.stream().filter(state -> state.getRating() != null).count();
+                    statsService.onRatingsChanged(startupId,
+                            (long) rating * affected.size() - previousSum,
+                            affected.size() - previouslyRated);
+                }
+            }
+            case DELETE -> {
+                affected = states;
+                if (!affected.isEmpty()) {
+                    pitchRepository.deleteByStartupIdAndIdIn(startupId, ids(affected));
+                    affected.forEach(state -> similarityIndex.remove(startupId, state.getId()));
+                    statsService.onDeleted(affected.stream()
+                            .map(state -> Pitch.builder()
+                                    .startupId(startupId)
+                                    .type(state.getType())
+                                    .isFavorite(state.getIsFavorite())
+                                    .rating(state.getRating())
+                                    .build())
+                            .toList());
+                }
+            }
+            default -> throw new InvalidPitchQueryException("Opération non supportée: " + operation);
+        }
+        log.info("Opération {} appliquée à {} pitchs", operation, affected.size());
+
+        return BulkPitchResultDTO.builder()
+                .operation(operation)
+                .affected(affected.size())
+                .affectedIds(ids(affected))
+                .build();
+    }
+
+    private static List<UUID> ids(List<PitchStateView> states) {
+        return states.stream().map(PitchStateView::getId).toList();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<PitchResponseDTO> getFavoritePitchs(String authToken) {
         log.info("Récupération des pitchs favoris");
 
-        UserDTO user = authServiceClient.getCurrentUser(authToken);
-        StartupDTO startup = startupServiceClient.getMyStartup(authToken);
+        StartupDTO startup = requestContextResolver.resolve(authToken).getStartup();
 
         List<Pitch> favoritePitchs = pitchRepository
                 .findByStartupIdAndIsFavoriteTrueOrderByCreatedAtDesc(startup.getId());
@@ -216,8 +581,7 @@ public class PitchServiceImpl implements PitchService {
     public Page<PitchResponseDTO> getMyPitchsPaginated(String authToken, Pageable pageable) {
         log.info("Récupération des pitchs avec pagination");
 
-        UserDTO user = authServiceClient.getCurrentUser(authToken);
-        StartupDTO startup = startupServiceClient.getMyStartup(authToken);
+        StartupDTO startup = requestContextResolver.resolve(authToken).getStartup();
 
         Page<Pitch> pitchsPage = pitchRepository.findByStartupId(startup.getId(), pageable);
 
@@ -226,35 +590,177 @@ public class PitchServiceImpl implements PitchService {
 
     @Override
     @Transactional(readOnly = true)
-    public PitchStatsDTO getMyPitchStats(String authToken) {
-        log.info("Récupération des statistiques des pitchs");
+    public CursorPageDTO<PitchResponseDTO> getMyPitchsByCursor(String authToken, PitchListQuery query) {
+        log.info("Récupération des pitchs par curseur - tri: {} {}", query.getSort(), query.getDirection());
+
+        PitchCursor after = decodeCursor(query);
+        StartupDTO startup = requestContextResolver.resolve(authToken).getStartup();
+
+        // Une ligne de plus que demandé : indique s'il existe une page suivante, sans COUNT
+        List<Pitch> rows = pitchRepository.findPage(startup.getId(), query, after, query.getSize() + 1);
+        boolean hasNext = rows.size() > query.getSize();
+        List<Pitch> page = hasNext ? rows.subList(0, query.getSize()) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Pitch last = page.get(page.size() - 1);
+            LocalDateTime value = query.getSort() == PitchSortKey.UPDATED_AT ? last.getUpdatedAt() : last.getCreatedAt();
+            nextCursor = new PitchCursor(query.getSort(), query.getDirection(), value, last.getId()).encode();
+        }
+
+        return CursorPageDTO.<PitchResponseDTO>builder()
+                .items(page.stream().map(this::mapToResponseDTO).collect(Collectors.toList()))
+                .size(page.size())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<PitchSearchHitDTO> searchMyPitchs(String authToken, String query, String cursor, int size) {
+        String terms = query == null ? "" : query.trim();
+        if (terms.isEmpty()) {
+            throw new InvalidPitchQueryException("Le terme de recherche est obligatoire");
+        }
+        if (terms.length() > MAX_SEARCH_LENGTH) {
+            throw new InvalidPitchQueryException("Recherche limitée à " + MAX_SEARCH_LENGTH + " caractères");
+        }
+        log.info("Recherche dans les pitchs: {}", terms);
+
+        PitchSearchCursor after = cursor != null && !cursor.isBlank() ? PitchSearchCursor.decode(cursor, terms) : null;
+        StartupDTO startup = requestContextResolver.resolve(authToken).getStartup();
 
-        UserDTO user = authServiceClient.getCurrentUser(authToken);
-        StartupDTO startup = startupServiceClient.getMyStartup(authToken);
+        // Une ligne de plus que demandé : indique s'il existe une page suivante
+        List<PitchSearchHitDTO> rows = pitchSearchRepository.search(startup.getId(), terms, after, size + 1);
+        boolean hasNext = rows.size() > size;
+        List<PitchSearchHitDTO> page = hasNext ? rows.subList(0, size) : rows;
 
-        long totalPitchs = pitchRepository.countByStartupId(startup.getId());
+        String nextCursor = null;
+        if (hasNext) {
+            PitchSearchHitDTO last = page.get(page.size() - 1);
+            nextCursor = new PitchSearchCursor(terms.hashCode(), last.getRank(), last.getPitch().getId()).encode();
+        }
+
+        return CursorPageDTO.<PitchSearchHitDTO>builder()
+                .items(page)
+                .size(page.size())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getMyPitchsFields(String authToken, boolean favoritesOnly,
+                                                       Set<PitchField> fields) {
+        log.info("Récupération des pitchs - champs: {}", fields);
+
+        StartupDTO startup = requestContextResolver.resolve(authToken).getStartup();
+
+        PitchListQuery query = PitchListQuery.builder().favoritesOnly(favoritesOnly).build();
+        List<Map<String, Object>> rows = pitchRepository.findProjected(startup.getId(), query, null, fields, 0, 0);
+        rows.forEach(row -> retainFields(row, fields));
+        return rows;
+    }
 
-        List<Pitch> allPitchs = pitchRepository.findByStartupIdOrderByCreatedAtDesc(startup.getId());
-        long favoritePitchs = allPitchs.stream()
-                .filter(Pitch::getIsFavorite)
-                .count();
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getMyPitchsPaginatedFields(String authToken, Pageable pageable,
+                                                               Set<PitchField> fields) {
+        log.info("Récupération des pitchs paginés - champs: {}", fields);
 
-        Double averageRating = pitchRepository.getAverageRatingForStartup(startup.getId());
+        StartupDTO startup = requestContextResolver.resolve(authToken).getStartup();
+
+        Sort.Order order = pageable.getSort().stream().findFirst()
+                .orElse(Sort.Order.desc(PitchSortKey.CREATED_AT.getProperty()));
+        PitchListQuery query = PitchListQuery.builder()
+                .sort(PitchSortKey.fromParam(order.getProperty()))
+                .direction(order.getDirection())
+                .build();
 
-        Map<String, Long> pitchsByType = new HashMap<>();
-        List<Object[]> typeStats = pitchRepository.countByTypeForStartup(startup.getId());
-        for (Object[] stat : typeStats) {
-            pitchsByType.put(stat[0].toString(), (Long) stat[1]);
+        List<Map<String, Object>> rows = pitchRepository.findProjected(
+                startup.getId(), query, null, fields, pageable.getOffset(), pageable.getPageSize());
+        rows.forEach(row -> retainFields(row, fields));
+
+        return new PageImpl<>(rows, pageable, pitchRepository.countByStartupId(startup.getId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<Map<String, Object>> getMyPitchsByCursorFields(String authToken, PitchListQuery query,
+                                                                        Set<PitchField> fields) {
+        log.info("Récupération des pitchs par curseur - champs: {}", fields);
+
+        PitchCursor after = decodeCursor(query);
+        StartupDTO startup = requestContextResolver.resolve(authToken).getStartup();
+
+        List<Map<String, Object>> rows = pitchRepository.findProjected(
+                startup.getId(), query, after, fields, 0, query.getSize() + 1);
+        boolean hasNext = rows.size() > query.getSize();
+        List<Map<String, Object>> page = hasNext ? rows.subList(0, query.getSize()) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            // id et clé de tri sont toujours sélectionnés, même non demandés, pour construire le curseur
+            Map<String, Object> last = page.get(page.size() - 1);
+            nextCursor = new PitchCursor(query.getSort(), query.getDirection(),
+                    (LocalDateTime) last.get(query.getSort().getProperty()),
+                    (UUID) last.get(PitchField.ID.getProperty())).encode();
         }
+        page.forEach(row -> retainFields(row, fields));
 
-        return PitchStatsDTO.builder()
-                .totalPitchs(totalPitchs)
-                .favoritePitchs(favoritePitchs)
-                .averageRating(averageRating != null ? averageRating : 0.0)
-                .pitchsByType(pitchsByType)
+        return CursorPageDTO.<Map<String, Object>>builder()
+                .items(page)
+                .size(page.size())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
                 .build();
     }
 
+    private static PitchCursor decodeCursor(PitchListQuery query) {
+        if (query.getCursor() == null || query.getCursor().isBlank()) {
+            return null;
+        }
+        PitchCursor after = PitchCursor.decode(query.getCursor());
+        if (after.sort() != query.getSort() || after.direction() != query.getDirection()) {
+            throw new InvalidPitchQueryException("Le curseur ne correspond pas au tri demandé");
+        }
+        return after;
+    }
+
+    private static void retainFields(Map<String, Object> row, Set<PitchField> fields) {
+        row.keySet().retainAll(fields.stream().map(PitchField::getProperty).collect(Collectors.toSet()));
+    }
+
+    @Override
+    @Transactional
+    public PitchStatsDTO getMyPitchStats(String authToken) {
+        log.info("Récupération des statistiques des pitchs");
+
+        StartupDTO startup = requestContextResolver.resolve(authToken).getStartup();
+
+        // Lecture par clé primaire de la ligne maintenue à chaque écriture
+        return statsService.getStats(startup.getId());
+    }
+
+    /**
+     * Sauvegarde d'un nouveau pitch et mise à jour des statistiques dans la même transaction
+     */
+    private Pitch saveNew(Pitch pitch) {
+        Pitch savedPitch = transactionTemplate.execute(status -> {
+            Pitch saved = pitchRepository.save(pitch);
+            statsService.onCreated(saved);
+            return saved;
+        });
+        indexSignature(savedPitch);
+        return savedPitch;
+    }
+
+    private void indexSignature(Pitch pitch) {
+        similarityIndex.add(pitch.getStartupId(), pitch.getId(), pitch.getType(), pitch.getInputSimhash());
+    }
+
     private PitchResponseDTO mapToResponseDTO(Pitch pitch) {
         return PitchResponseDTO.builder()
                 .id(pitch.getId())
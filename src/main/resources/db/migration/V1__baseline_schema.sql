@@ -0,0 +1,51 @@
+-- Schéma de référence, jusqu'ici créé par hibernate.ddl-auto=update.
+-- IF NOT EXISTS : s'applique aussi bien sur une base vide que sur une base existante (baseline-on-migrate).
+
+CREATE SCHEMA IF NOT EXISTS pitch_schema;
+
+CREATE TABLE IF NOT EXISTS pitch_schema.pitchs (
+    id           UUID         NOT NULL PRIMARY KEY,
+    startup_id   UUID         NOT NULL,
+    probleme     VARCHAR(500) NOT NULL,
+    solution     VARCHAR(500) NOT NULL,
+    cible        VARCHAR(300) NOT NULL,
+    avantage     VARCHAR(300) NOT NULL,
+    pitch_genere TEXT         NOT NULL,
+    type         VARCHAR(50)  NOT NULL,
+    rating       INTEGER,
+    is_favorite  BOOLEAN,
+    created_at   TIMESTAMP(6) NOT NULL,
+    updated_at   TIMESTAMP(6),
+    version      BIGINT DEFAULT 0
+);
+
+ALTER TABLE pitch_schema.pitchs ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS pitch_schema.pitch_templates (
+    id        UUID         NOT NULL PRIMARY KEY,
+    nom       VARCHAR(255) NOT NULL,
+    prompt    TEXT         NOT NULL,
+    secteur   VARCHAR(100),
+    is_active BOOLEAN
+);
+
+CREATE TABLE IF NOT EXISTS pitch_schema.ai_response_cache (
+    cache_key  VARCHAR(64)  NOT NULL PRIMARY KEY,
+    model      VARCHAR(100) NOT NULL,
+    pitch_type VARCHAR(50),
+    response   TEXT         NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS pitch_schema.startup_pitch_stats (
+    startup_id        UUID   NOT NULL PRIMARY KEY,
+    total_pitchs      BIGINT NOT NULL,
+    favorite_pitchs   BIGINT NOT NULL,
+    rating_sum        BIGINT NOT NULL,
+    rating_count      BIGINT NOT NULL,
+    elevator_pitchs   BIGINT NOT NULL,
+    deck_pitchs       BIGINT NOT NULL,
+    value_prop_pitchs BIGINT NOT NULL,
+    updated_at        TIMESTAMP(6)
+);
@@ -0,0 +1,35 @@
+-- Index des requêtes de PitchRepository (listings, favoris, filtres par type, curseurs, statistiques).
+-- Remplace les index qu'hibernate.ddl-auto a pu créer à partir des annotations @Index.
+--
+-- Construits avec CONCURRENTLY pour ne pas bloquer les écritures sur pitchs en production : le script
+-- s'exécute hors transaction (V2__pitch_indexes.sql.conf). Un index laissé INVALID par une construction
+-- interrompue est supprimé puis reconstruit lorsque la migration est rejouée.
+
+DROP INDEX CONCURRENTLY IF EXISTS pitch_schema.idx_pitchs_startup_created;
+DROP INDEX CONCURRENTLY IF EXISTS pitch_schema.idx_pitchs_startup_updated;
+DROP INDEX CONCURRENTLY IF EXISTS pitch_schema.idx_pitchs_startup_favorite_created;
+DROP INDEX CONCURRENTLY IF EXISTS pitch_schema.idx_pitchs_startup_type_created;
+DROP INDEX CONCURRENTLY IF EXISTS pitch_schema.idx_pitchs_startup_favorites;
+DROP INDEX CONCURRENTLY IF EXISTS pitch_schema.idx_pitchs_startup_type;
+DROP INDEX CONCURRENTLY IF EXISTS pitch_schema.idx_ai_response_cache_expires_at;
+
+-- Listing principal, pagination et curseur par date de création ; couvre aussi countByStartupId
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pitchs_startup_created
+    ON pitch_schema.pitchs (startup_id, created_at DESC, id DESC);
+
+-- Curseur trié par date de modification
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pitchs_startup_updated
+    ON pitch_schema.pitchs (startup_id, updated_at DESC, id DESC);
+
+-- Favoris : index partiel, ne contient que les pitchs favoris
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pitchs_startup_favorites
+    ON pitch_schema.pitchs (startup_id, created_at DESC, id DESC)
+    WHERE is_favorite = TRUE;
+
+-- Filtre par type (listing et countByTypeForStartup)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pitchs_startup_type
+    ON pitch_schema.pitchs (startup_id, type, created_at DESC, id DESC);
+
+-- Purge périodique des réponses IA expirées
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ai_response_cache_expires_at
+    ON pitch_schema.ai_response_cache (expires_at);
@@ -0,0 +1,6 @@
+-- Type de pitch ciblé par un template (NULL : tous les types du secteur)
+ALTER TABLE pitch_schema.pitch_templates ADD COLUMN IF NOT EXISTS type VARCHAR(50);
+
+CREATE INDEX IF NOT EXISTS idx_pitch_templates_secteur_active
+    ON pitch_schema.pitch_templates (secteur)
+    WHERE is_active;
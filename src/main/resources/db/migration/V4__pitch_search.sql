@@ -0,0 +1,13 @@
+-- Recherche plein texte (configuration française : racinisation et mots vides).
+-- Colonne générée : PostgreSQL la recalcule à chaque INSERT/UPDATE, y compris pour les écritures JDBC en masse.
+-- Poids : A = pitch généré, B = problème et solution, C = cible et avantage.
+ALTER TABLE pitch_schema.pitchs
+    ADD COLUMN IF NOT EXISTS search_vector tsvector
+        GENERATED ALWAYS AS (
+            setweight(to_tsvector('french'::regconfig, coalesce(pitch_genere, '')), 'A') ||
+            setweight(to_tsvector('french'::regconfig, coalesce(probleme, '') || ' ' || coalesce(solution, '')), 'B') ||
+            setweight(to_tsvector('french'::regconfig, coalesce(cible, '') || ' ' || coalesce(avantage, '')), 'C')
+        ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_pitchs_search_vector
+    ON pitch_schema.pitchs USING GIN (search_vector);
@@ -0,0 +1,3 @@
+-- Empreinte SimHash (64 bits) des champs saisis, pour détecter les demandes quasi identiques.
+-- NULL pour les pitchs antérieurs : ils ne sont simplement pas proposés comme doublons.
+ALTER TABLE pitch_schema.pitchs ADD COLUMN IF NOT EXISTS input_simhash BIGINT;
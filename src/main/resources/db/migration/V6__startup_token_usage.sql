@@ -0,0 +1,12 @@
+-- Jetons IA consommés par startup, jour et type de pitch ('NONE' pour les appels sans type).
+-- Alimentée par lots depuis les compteurs en mémoire de StartupTokenUsageService (upsert additif).
+CREATE TABLE IF NOT EXISTS pitch_schema.startup_token_usage (
+    startup_id        UUID        NOT NULL,
+    usage_date        DATE        NOT NULL,
+    pitch_type        VARCHAR(50) NOT NULL,
+    prompt_tokens     BIGINT      NOT NULL DEFAULT 0,
+    completion_tokens BIGINT      NOT NULL DEFAULT 0,
+    calls             BIGINT      NOT NULL DEFAULT 0,
+    updated_at        TIMESTAMP(6),
+    PRIMARY KEY (startup_id, usage_date, pitch_type)
+);
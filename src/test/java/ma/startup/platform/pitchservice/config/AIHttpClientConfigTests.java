@@ -0,0 +1,76 @@
+package ma.startup.platform.pitchservice.config;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AIHttpClientConfigTests {
+
+    private HttpServer server;
+    private CloseableHttpClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/fast", exchange -> respond(exchange, 0));
+        server.createContext("/slow", exchange -> respond(exchange, 2000));
+        server.start();
+        client = HttpClients.custom()
+                .addExecInterceptorFirst("total-timeout",
+                        new AIHttpClientConfig.TotalTimeoutHandler(Duration.ofMillis(300)))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        client.close();
+        server.stop(0);
+    }
+
+    @Test
+    void timeoutTaskIsRemovedOnceResponseIsClosed() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            String body = client.execute(new HttpGet(url("/fast")), response -> EntityUtils.toString(response.getEntity()));
+            assertEquals("ok", body);
+        }
+        assertEquals(0, AIHttpClientConfig.TotalTimeoutHandler.TIMER.getQueue().size());
+    }
+
+    @Test
+    void exchangeIsCancelledAfterTotalTimeout() {
+        long start = System.nanoTime();
+        assertThrows(IOException.class, () -> client.execute(new HttpGet(url("/slow")),
+                response -> EntityUtils.toString(response.getEntity())));
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1500);
+        assertEquals(0, AIHttpClientConfig.TotalTimeoutHandler.TIMER.getQueue().size());
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+
+    private static void respond(HttpExchange exchange, long delayMs) throws IOException {
+        byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            Thread.sleep(delayMs);
+            out.write(body);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package ma.startup.platform.pitchservice.repository;
+
+import ma.startup.platform.pitchservice.dto.PitchCursor;
+import ma.startup.platform.pitchservice.dto.PitchField;
+import ma.startup.platform.pitchservice.dto.PitchListQuery;
+import ma.startup.platform.pitchservice.dto.PitchSortKey;
+import ma.startup.platform.pitchservice.model.Pitch;
+import ma.startup.platform.pitchservice.model.PitchType;
+import ma.startup.platform.pitchservice.service.AIService;
+import ma.startup.platform.pitchservice.service.RequestContextResolver;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Vérifie, sur un vrai PostgreSQL migré par Flyway, que chaque méthode de PitchRepository (et l'initialisation
+ * des statistiques) s'appuie sur l'index prévu par V2__pitch_indexes.sql.
+ *
+ * Le SQL testé est celui qu'Hibernate envoie réellement (capturé par un StatementInspector pendant l'appel
+ * de la méthode), expliqué avec son plan générique de requête préparée, avec les réglages par défaut
+ * du planificateur. Le plan doit nommer l'index attendu : un parcours complet de la clé primaire
+ * ou un Seq Scan fait échouer le test.
+ *
+ * Nécessite Docker ; le test est ignoré sinon.
+ */
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@Testcontainers(disabledWithoutDocker = true)
+class PitchRepositoryIndexTests {
+
+    private static final String PKEY = "pitchs_pkey";
+    private static final String CREATED = "idx_pitchs_startup_created";
+    private static final String UPDATED = "idx_pitchs_startup_updated";
+    private static final String FAVORITES = "idx_pitchs_startup_favorites";
+    private static final String TYPE = "idx_pitchs_startup_type";
+    // Lecture de tous les pitchs d'une startup (agrégats, listes complètes triées après coup) :
+    // n'importe quel index commençant par startup_id convient
+    private static final List<String> ANY_STARTUP = List.of(CREATED, UPDATED, TYPE);
+
+    private static final UUID STARTUP = UUID.fromString("00000000-0000-0000-0000-000000000042");
+    private static final List<UUID> IDS = List.of(UUID.randomUUID(), UUID.randomUUID());
+    private static final PitchCursor AFTER_CREATED = new PitchCursor(PitchSortKey.CREATED_AT, Sort.Direction.DESC,
+            LocalDateTime.now().minusHours(1), UUID.randomUUID());
+    private static final PitchCursor AFTER_UPDATED = new PitchCursor(PitchSortKey.UPDATED_AT, Sort.Direction.DESC,
+            LocalDateTime.now().minusHours(1), UUID.randomUUID());
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PitchRepository pitchRepository;
+
+    @Autowired
+    private StartupPitchStatsRepository statsRepository;
+
+    @Autowired
+    private SqlCapture sqlCapture;
+
+    @MockitoBean
+    private AIService aiService;
+
+    @MockitoBean
+    private RequestContextResolver requestContextResolver;
+
+    @TestConfiguration
+    static class SqlCaptureConfig {
+
+        @Bean
+        SqlCapture sqlCapture() {
+            return new SqlCapture();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer sqlCaptureCustomizer(SqlCapture sqlCapture) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlCapture);
+        }
+    }
+
+    static class SqlCapture implements StatementInspector {
+
+        private final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        // 50 000 lignes réparties sur 100 startups de 500 pitchs : une startup ne représente que 1 % de la table,
+        // mais assez de lignes pour qu'un index mal choisi coûte plus cher qu'un tri
+        jdbcTemplate.execute("""
+                INSERT INTO pitch_schema.pitchs
+                    (id, startup_id, probleme, solution, cible, avantage, pitch_genere, type,
+                     rating, is_favorite, input_simhash, created_at, updated_at, version)
+                SELECT gen_random_uuid(),
+                       ('00000000-0000-0000-0000-' || lpad((g % 100)::text, 12, '0'))::uuid,
+                       'p', 's', 'c', 'a', repeat('x', 200),
+                       (ARRAY['ELEVATOR', 'DECK', 'VALUE_PROP'])[1 + g % 3],
+                       CASE WHEN g % 4 = 0 THEN 1 + g % 5 END,
+                       g % 10 = 0,
+                       CASE WHEN g % 2 = 0 THEN g END,
+                       now() - g * interval '1 minute',
+                       now() - g * interval '1 minute',
+                       0
+                FROM generate_series(1, 50000) g
+                WHERE NOT EXISTS (SELECT 1 FROM pitch_schema.pitchs)
+                """);
+        // VACUUM marque les pages visibles : les plans ne dépendent pas du passage de l'autovacuum
+        jdbcTemplate.execute("VACUUM ANALYZE pitch_schema.pitchs");
+    }
+
+    /**
+     * Méthode à appeler et, pour chaque requête qu'elle envoie (dans l'ordre), les index acceptés
+     */
+    record RepositoryCall(String method, Consumer<PitchRepositoryIndexTests> call, List<List<String>> indexes) {
+        @Override
+        public String toString() {
+            return method;
+        }
+    }
+
+    static Stream<RepositoryCall> repositoryCalls() {
+        PitchListQuery bySort = PitchListQuery.builder().size(20).build();
+        PitchListQuery byUpdate = PitchListQuery.builder().size(20).sort(PitchSortKey.UPDATED_AT).build();
+        PitchListQuery favorites = PitchListQuery.builder().size(20).favoritesOnly(true).build();
+        PitchListQuery byType = PitchListQuery.builder().size(20).type(PitchType.DECK).build();
+        Set<PitchField> fields = PitchField.parse("probleme,createdAt");
+
+        return Stream.of(
+                call("findByStartupIdOrderByCreatedAtDesc",
+                        t -> t.pitchRepository.findByStartupIdOrderByCreatedAtDesc(STARTUP), ANY_STARTUP),
+                call("findByStartupIdAndIsFavoriteTrueOrderByCreatedAtDesc",
+                        t -> t.pitchRepository.findByStartupIdAndIsFavoriteTrueOrderByCreatedAtDesc(STARTUP), FAVORITES),
+                call("findByStartupIdAndTypeOrderByCreatedAtDesc",
+                        t -> t.pitchRepository.findByStartupIdAndTypeOrderByCreatedAtDesc(STARTUP, PitchType.DECK), TYPE),
+                call("countByStartupId",
+                        t -> t.pitchRepository.countByStartupId(STARTUP), ANY_STARTUP),
+                call("existsByIdAndStartupId",
+                        t -> t.pitchRepository.existsByIdAndStartupId(IDS.get(0), STARTUP), PKEY),
+                call("findByIdAndStartupId",
+                        t -> t.pitchRepository.findByIdAndStartupId(IDS.get(0), STARTUP), PKEY),
+                // La page, puis son COUNT
+                new RepositoryCall("findByStartupId(Pageable)",
+                        t -> t.pitchRepository.findByStartupId(STARTUP,
+                                PageRequest.of(2, 10, Sort.by(Sort.Direction.DESC, "createdAt"))),
+                        List.of(List.of(CREATED), ANY_STARTUP)),
+                call("countByTypeForStartup",
+                        t -> t.pitchRepository.countByTypeForStartup(STARTUP), ANY_STARTUP),
+                call("getAverageRatingForStartup",
+                        t -> t.pitchRepository.getAverageRatingForStartup(STARTUP), ANY_STARTUP),
+                call("lockStates",
+                        t -> t.pitchRepository.lockStates(STARTUP, IDS), PKEY),
+                call("updateFavorite",
+                        t -> t.pitchRepository.updateFavorite(STARTUP, IDS, true, LocalDateTime.now()), PKEY),
+                call("updateRating",
+                        t -> t.pitchRepository.updateRating(STARTUP, IDS, 4, LocalDateTime.now()), PKEY),
+                call("deleteByStartupIdAndIdIn",
+                        t -> t.pitchRepository.deleteByStartupIdAndIdIn(STARTUP, IDS), PKEY),
+                call("findVersionByIdAndStartupId",
+                        t -> t.pitchRepository.findVersionByIdAndStartupId(IDS.get(0), STARTUP), PKEY),
+                call("findCollectionVersion",
+                        t -> t.pitchRepository.findCollectionVersion(STARTUP), ANY_STARTUP),
+                call("findFavoritesCollectionVersion",
+                        t -> t.pitchRepository.findFavoritesCollectionVersion(STARTUP), FAVORITES),
+                call("findSignatures",
+                        t -> t.pitchRepository.findSignatures(STARTUP), ANY_STARTUP),
+                call("findPage (createdAt)",
+                        t -> t.pitchRepository.findPage(STARTUP, bySort, null, 21), CREATED),
+                call("findPage (createdAt, curseur)",
+                        t -> t.pitchRepository.findPage(STARTUP, bySort, AFTER_CREATED, 21), CREATED),
+                call("findPage (updatedAt, curseur)",
+                        t -> t.pitchRepository.findPage(STARTUP, byUpdate, AFTER_UPDATED, 21), UPDATED),
+                call("findPage (favoris)",
+                        t -> t.pitchRepository.findPage(STARTUP, favorites, null, 21), FAVORITES),
+                call("findPage (type)",
+                        t -> t.pitchRepository.findPage(STARTUP, byType, null, 21), TYPE),
+                call("findProjected (curseur)",
+                        t -> t.pitchRepository.findProjected(STARTUP, bySort, AFTER_CREATED, fields, 0, 21), CREATED),
+                call("findProjected (offset)",
+                        t -> t.pitchRepository.findProjected(STARTUP, bySort, null, fields, 20, 10), CREATED),
+                call("streamAll",
+                        t -> consume(t.pitchRepository.streamAll(STARTUP, false, 500)), ANY_STARTUP),
+                call("streamAll (favoris)",
+                        t -> consume(t.pitchRepository.streamAll(STARTUP, true, 500)), FAVORITES),
+                call("StartupPitchStatsRepository.seedFromPitchs",
+                        t -> t.statsRepository.seedFromPitchs(STARTUP), ANY_STARTUP)
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryCalls")
+    void repositoryMethodUsesExpectedIndex(RepositoryCall call) {
+        List<String> statements = capture(call);
+        assertEquals(call.indexes().size(), statements.size(),
+                call.method() + " n'a pas envoyé les requêtes attendues sur pitchs : " + statements);
+
+        for (int i = 0; i < statements.size(); i++) {
+            String sql = statements.get(i);
+            List<String> indexes = call.indexes().get(i);
+            String plan = genericPlan(sql);
+            assertFalse(plan.contains("Seq Scan on pitchs"), call.method() + " parcourt toute la table :\n" + sql + "\n" + plan);
+            assertTrue(indexes.stream().anyMatch(plan::contains),
+                    call.method() + " n'utilise pas " + indexes + " :\n" + sql + "\n" + plan);
+        }
+    }
+
+    /**
+     * Exécute la méthode dans une transaction annulée et renvoie les requêtes SQL qu'elle a envoyées sur pitchs
+     */
+    private List<String> capture(RepositoryCall call) {
+        return transactionTemplate.execute(status -> {
+            sqlCapture.statements.clear();
+            call.call().accept(this);
+            status.setRollbackOnly();
+            return new ArrayList<>(sqlCapture.statements.stream()
+                    .filter(sql -> sql.contains("pitchs"))
+                    .toList());
+        });
+    }
+
+    /**
+     * Plan générique de la requête, tel que PostgreSQL l'utilise pour une requête préparée quelles que soient
+     * les valeurs des paramètres (les ? de JDBC deviennent $1, $2...)
+     */
+    private String genericPlan(String sql) {
+        StringBuilder statement = new StringBuilder();
+        int parameters = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                statement.append('$').append(++parameters);
+            } else {
+                statement.append(c);
+            }
+        }
+        String arguments = parameters == 0 ? "" : "(" + String.join(", ", Collections.nCopies(parameters, "NULL")) + ")";
+
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("SET LOCAL plan_cache_mode = force_generic_plan");
+            jdbcTemplate.execute("PREPARE repository_query AS " + statement);
+            try {
+                return String.join("\n",
+                        jdbcTemplate.queryForList("EXPLAIN EXECUTE repository_query" + arguments, String.class));
+            } finally {
+                jdbcTemplate.execute("DEALLOCATE repository_query");
+            }
+        });
+    }
+
+    private static RepositoryCall call(String method, Consumer<PitchRepositoryIndexTests> call, String index) {
+        return call(method, call, List.of(index));
+    }
+
+    private static RepositoryCall call(String method, Consumer<PitchRepositoryIndexTests> call, List<String> indexes) {
+        return new RepositoryCall(method, call, List.of(indexes));
+    }
+
+    private static void consume(Stream<Pitch> pitchs) {
+        try (pitchs) {
+            pitchs.forEach(pitch -> {
+            });
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package ma.startup.platform.pitchservice.repository;
+
+import ma.startup.platform.pitchservice.dto.PitchSearchCursor;
+import ma.startup.platform.pitchservice.dto.PitchSearchHitDTO;
+import ma.startup.platform.pitchservice.service.AIService;
+import ma.startup.platform.pitchservice.service.RequestContextResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Recherche plein texte sur un vrai PostgreSQL migré par Flyway (colonne générée search_vector et index GIN).
+ *
+ * Nécessite Docker ; le test est ignoré sinon.
+ */
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@Testcontainers(disabledWithoutDocker = true)
+class PitchSearchRepositoryTests {
+
+    private static final UUID STARTUP = UUID.fromString("6f1c2b1e-8a51-4c1e-9a7e-0f6d3f1b2a10");
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16-alpine");
+
+    @Autowired
+    private PitchSearchRepository searchRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoBean
+    private AIService aiService;
+
+    @MockitoBean
+    private RequestContextResolver requestContextResolver;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM pitch_schema.pitchs");
+        insert(STARTUP, "Les commerçants attendent leurs paiements", "Paiement mobile instantané",
+                "Commerçants", "Frais réduits", "PayMa accélère les paiements mobiles <b>sans banque</b>");
+        insert(STARTUP, "Logistique lente", "Livraison par drones", "E-commerce", "Rapidité",
+                "Des livraisons en une heure");
+        insert(UUID.randomUUID(), "Paiements", "Paiement", "Cible", "Avantage", "Une autre startup paie aussi");
+        // Volume pour que le planificateur ait un choix entre les index
+        jdbcTemplate.update("""
+                INSERT INTO pitch_schema.pitchs
+                    (id, startup_id, probleme, solution, cible, avantage, pitch_genere, type,
+                     is_favorite, created_at, updated_at, version)
+                SELECT gen_random_uuid(), ?, 'Problème ' || g, 'Solution agricole ' || g, 'Agriculteurs',
+                       'Irrigation', 'Pitch de test numéro ' || g, 'ELEVATOR', FALSE, now(), now(), 0
+                FROM generate_series(1, 3000) g
+                """, STARTUP);
+        jdbcTemplate.execute("ANALYZE pitch_schema.pitchs");
+    }
+
+    @Test
+    void frenchStemmingMatchesAndHighlightsWithinStartup() {
+        List<PitchSearchHitDTO> hits = searchRepository.search(STARTUP, "paiement", null, 10);
+
+        assertEquals(1, hits.size());
+        PitchSearchHitDTO hit = hits.get(0);
+        assertEquals(STARTUP, hit.getPitch().getStartupId());
+        assertTrue(hit.getRank() > 0);
+        assertTrue(hit.getHighlight().contains("<mark>paiements</mark>"), hit.getHighlight());
+        // Le texte du pitch est échappé : seules les balises <mark> sont du HTML
+        assertFalse(hit.getHighlight().contains("<b>"), hit.getHighlight());
+    }
+
+    @Test
+    void websearchSyntaxAndRowsKeptCurrentOnUpdate() {
+        assertTrue(searchRepository.search(STARTUP, "paiement -mobile", null, 10).isEmpty());
+
+        jdbcTemplate.update("UPDATE pitch_schema.pitchs SET pitch_genere = 'Nouvelle version avec paiements' "
+                + "WHERE startup_id = ? AND probleme = 'Logistique lente'", STARTUP);
+
+        assertEquals(2, searchRepository.search(STARTUP, "paiement", null, 10).size());
+    }
+
+    @Test
+    void cursorWalksRankedResultsWithoutDuplicates() {
+        Set<UUID> seen = new HashSet<>();
+        List<Float> ranks = new ArrayList<>();
+        PitchSearchCursor after = null;
+        while (true) {
+            List<PitchSearchHitDTO> page = searchRepository.search(STARTUP, "agricole", after, 500);
+            if (page.isEmpty()) {
+                break;
+            }
+            page.forEach(hit -> {
+                assertTrue(seen.add(hit.getPitch().getId()));
+                ranks.add(hit.getRank());
+            });
+            PitchSearchHitDTO last = page.get(page.size() - 1);
+            after = new PitchSearchCursor("agricole".hashCode(), last.getRank(), last.getPitch().getId());
+        }
+
+        assertEquals(3000, seen.size());
+        for (int i = 1; i < ranks.size(); i++) {
+            assertTrue(ranks.get(i) <= ranks.get(i - 1));
+        }
+    }
+
+    @Test
+    void searchUsesTheGinIndex() {
+        List<String> plan = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            return jdbcTemplate.queryForList("EXPLAIN SELECT id FROM pitch_schema.pitchs "
+                    + "WHERE startup_id = '" + STARTUP + "' "
+                    + "AND search_vector @@ websearch_to_tsquery('french'::regconfig, 'paiement')", String.class);
+        });
+
+        String text = String.join("\n", plan);
+        assertTrue(text.contains("idx_pitchs_search_vector"), text);
+    }
+
+    private void insert(UUID startupId, String probleme, String solution, String cible, String avantage,
+                        String pitchGenere) {
+        jdbcTemplate.update("""
+                INSERT INTO pitch_schema.pitchs
+                    (id, startup_id, probleme, solution, cible, avantage, pitch_genere, type,
+                     is_favorite, created_at, updated_at, version)
+                VALUES (?, ?, ?, ?, ?, ?, ?, 'ELEVATOR', FALSE, now(), now(), 0)
+                """, UUID.randomUUID(), startupId, probleme, solution, cible, avantage, pitchGenere);
+    }
+}
@@ -0,0 +1,46 @@
+package ma.startup.platform.pitchservice.service;
+
+import ma.startup.platform.pitchservice.exception.AIRateLimitException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AIConcurrencyLimiterTests {
+
+    @Test
+    void parsesGroqResetDurations() {
+        assertEquals(Duration.ofMillis(7660), AIConcurrencyLimiter.parseDuration("7.66s"));
+        assertEquals(Duration.ofMillis(179_560), AIConcurrencyLimiter.parseDuration("2m59.56s"));
+        assertEquals(Duration.ofMillis(250), AIConcurrencyLimiter.parseDuration("250ms"));
+        assertEquals(Duration.ofSeconds(3723), AIConcurrencyLimiter.parseDuration("1h2m3s"));
+    }
+
+    @Test
+    void excessCallsWaitThenFailWithRetryAfter() {
+        AIConcurrencyLimiter limiter = new AIConcurrencyLimiter(1, 1, 4, 10, 50, 5000);
+        long deadline = limiter.newDeadline();
+
+        long first = limiter.acquire(deadline);
+        assertThrows(AIRateLimitException.class, () -> limiter.acquire(limiter.newDeadline()));
+
+        limiter.onSuccess(first, new HttpHeaders());
+        limiter.onSuccess(limiter.acquire(limiter.newDeadline()), new HttpHeaders());
+    }
+
+    @Test
+    void rateLimitHalvesLimitAndHonoursRetryAfter() {
+        AIConcurrencyLimiter limiter = new AIConcurrencyLimiter(8, 1, 32, 10, 100, 5000);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "30");
+
+        limiter.onRateLimited(limiter.acquire(limiter.newDeadline()), headers);
+
+        assertEquals(4, limiter.stats().get("limit"));
+        AIRateLimitException e = assertThrows(AIRateLimitException.class,
+                () -> limiter.acquire(limiter.newDeadline()));
+        assertTrue(e.getRetryAfterSeconds() >= 29);
+    }
+}
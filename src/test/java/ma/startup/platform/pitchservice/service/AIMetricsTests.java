@@ -0,0 +1,50 @@
+package ma.startup.platform.pitchservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ma.startup.platform.pitchservice.exception.AIException;
+import ma.startup.platform.pitchservice.exception.AIRateLimitException;
+import ma.startup.platform.pitchservice.model.PitchType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AIMetricsTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AIMetrics metrics = new AIMetrics(registry);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void callsAreTimedPerMethodTypeAndOutcome() {
+        assertEquals("pitch", metrics.time("generatePitch", PitchType.ELEVATOR, () -> "pitch"));
+        assertThrows(AIRateLimitException.class, () -> metrics.time("generatePitch", PitchType.ELEVATOR, () -> {
+            throw new AIRateLimitException("429", 1);
+        }));
+        assertThrows(AIException.class, () -> metrics.time("improvePitch", null, () -> {
+            throw new AIException("boom");
+        }));
+
+        assertEquals(1, registry.get(AIMetrics.CALLS)
+                .tags("method", "generatePitch", "type", "ELEVATOR", "outcome", "success").timer().count());
+        assertEquals(1, registry.get(AIMetrics.CALLS)
+                .tags("method", "generatePitch", "type", "ELEVATOR", "outcome", "rate_limited").timer().count());
+        assertEquals(1, registry.get(AIMetrics.CALLS)
+                .tags("method", "improvePitch", "type", "NONE", "outcome", "error").timer().count());
+    }
+
+    @Test
+    void tokensAreReadFromUsageAndStreamingUsageBlocks() throws Exception {
+        TokenUsage.from(objectMapper.readTree(
+                "{\"choices\":[],\"usage\":{\"prompt_tokens\":120,\"completion_tokens\":80}}"))
+                .ifPresent(usage -> metrics.recordUsage("llama", usage));
+        TokenUsage.from(objectMapper.readTree(
+                "{\"choices\":[],\"x_groq\":{\"id\":\"req\",\"usage\":{\"prompt_tokens\":30,\"completion_tokens\":20}}}"))
+                .ifPresent(usage -> metrics.recordUsage("llama", usage));
+        assertTrue(TokenUsage.from(objectMapper.readTree(
+                "{\"choices\":[{\"delta\":{\"content\":\"Bonjour\"}}],\"x_groq\":{\"id\":\"req\"}}")).isEmpty());
+
+        assertEquals(150, registry.get(AIMetrics.TOKENS).tags("model", "llama", "kind", "prompt").counter().count());
+        assertEquals(100, registry.get(AIMetrics.TOKENS).tags("model", "llama", "kind", "completion").counter().count());
+    }
+}
@@ -0,0 +1,54 @@
+package ma.startup.platform.pitchservice.service;
+
+import ma.startup.platform.pitchservice.model.PitchType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AIModelRouterTests {
+
+    private static final String SMALL = "llama-3.1-8b-instant";
+    private static final String LARGE = "llama-3.3-70b-versatile";
+
+    @Test
+    void eachPitchTypeUsesItsPreferredModel() {
+        AIModelRouter router = router();
+
+        assertEquals(SMALL, router.select(PitchType.ELEVATOR));
+        assertEquals(SMALL, router.select(PitchType.VALUE_PROP));
+        assertEquals(LARGE, router.select(PitchType.DECK));
+        assertEquals(SMALL, router.select(null));
+    }
+
+    @Test
+    void slowPrimaryFailsOverToSecondary() {
+        AIModelRouter router = router();
+        for (int i = 0; i < 10; i++) {
+            router.onSuccess(SMALL, 9_000);
+            router.onSuccess(LARGE, 800);
+        }
+
+        assertEquals(LARGE, router.select(PitchType.ELEVATOR));
+        assertEquals(LARGE, router.select(PitchType.DECK));
+    }
+
+    @Test
+    void failingPrimaryFailsOverAndNoHealthyModelPicksLowestP99() {
+        AIModelRouter router = router();
+        for (int i = 0; i < 10; i++) {
+            router.onFailure(LARGE, 100);
+        }
+        assertEquals(SMALL, router.select(PitchType.DECK));
+
+        for (int i = 0; i < 10; i++) {
+            router.onSuccess(SMALL, 6_000);
+        }
+        assertEquals(LARGE, router.select(PitchType.DECK));
+    }
+
+    private AIModelRouter router() {
+        String small = SMALL + "," + LARGE;
+        return new AIModelRouter(small, LARGE + "," + SMALL, small, SMALL,
+                5_000, 0.2, 300, 10, 0.0);
+    }
+}
@@ -0,0 +1,113 @@
+package ma.startup.platform.pitchservice.service;
+
+import ma.startup.platform.pitchservice.exception.AIException;
+import ma.startup.platform.pitchservice.exception.AIUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AIResilienceTests {
+
+    private ThreadPoolTaskExecutor hedgeExecutor;
+
+    @BeforeEach
+    void setUp() {
+        hedgeExecutor = new ThreadPoolTaskExecutor();
+        hedgeExecutor.setCorePoolSize(4);
+        hedgeExecutor.setQueueCapacity(0);
+        hedgeExecutor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        hedgeExecutor.shutdown();
+    }
+
+    @Test
+    void transientErrorsAreRetriedUntilSuccess() {
+        AIResilience resilience = resilience(breaker(20, 10), false);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = resilience.execute(() -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new AIException("Erreur communication Groq",
+                        new HttpServerErrorException(HttpStatus.BAD_GATEWAY));
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(3, calls.get());
+        assertEquals(2L, resilience.stats().get("retries"));
+    }
+
+    @Test
+    void clientErrorsAreNotRetried() {
+        AIResilience resilience = resilience(breaker(20, 10), false);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(HttpClientErrorException.class, () -> resilience.execute(() -> {
+            calls.incrementAndGet();
+            throw new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+        }));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void openBreakerFailsFastWithoutCallingProvider() {
+        AICircuitBreaker breaker = breaker(4, 2);
+        AIResilience resilience = resilience(breaker, false);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(AIException.class, () -> resilience.execute(() -> {
+            calls.incrementAndGet();
+            throw new AIException("Erreur communication Groq",
+                    new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+        }));
+        assertEquals(AICircuitBreaker.State.OPEN, breaker.getState());
+
+        int before = calls.get();
+        AIUnavailableException error = assertThrows(AIUnavailableException.class,
+                () -> resilience.execute(() -> "ok"));
+        assertTrue(error.getRetryAfterSeconds() > 0);
+        assertEquals(before, calls.get());
+    }
+
+    @Test
+    void slowPrimaryIsHedged() {
+        AIResilience resilience = resilience(breaker(20, 10), true);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = resilience.execute(() -> {
+            if (calls.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new AIException("Appel IA interrompu", e);
+                }
+                return "lent";
+            }
+            return "rapide";
+        });
+
+        assertEquals("rapide", result);
+        assertEquals(1L, resilience.stats().get("hedgeWins"));
+    }
+
+    private AICircuitBreaker breaker(int windowSize, int minimumCalls) {
+        return new AICircuitBreaker(windowSize, minimumCalls, 0.5, 30_000, 1);
+    }
+
+    private AIResilience resilience(AICircuitBreaker breaker, boolean hedging) {
+        return new AIResilience(breaker, hedgeExecutor, 3, 1, 5, hedging, 50);
+    }
+}
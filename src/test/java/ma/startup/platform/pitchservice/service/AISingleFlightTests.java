@@ -0,0 +1,119 @@
+package ma.startup.platform.pitchservice.service;
+
+import ma.startup.platform.pitchservice.exception.AIException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AISingleFlightTests {
+
+    private ThreadPoolTaskExecutor aiExecutor;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        aiExecutor = new ThreadPoolTaskExecutor();
+        aiExecutor.setCorePoolSize(4);
+        aiExecutor.initialize();
+        callers = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        aiExecutor.shutdown();
+    }
+
+    @Test
+    void concurrentIdenticalCallsShareOneUpstreamRequest() throws Exception {
+        AISingleFlight singleFlight = new AISingleFlight(aiExecutor, 5000);
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            results.add(callers.submit(() -> singleFlight.execute("prompt", () -> {
+                upstreamCalls.incrementAndGet();
+                await(release);
+                return "pitch";
+            })));
+        }
+        waitUntil(() -> (long) singleFlight.stats().get("coalesced") == 4);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("pitch", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void upstreamErrorIsPropagatedToEveryWaiter() throws Exception {
+        AISingleFlight singleFlight = new AISingleFlight(aiExecutor, 5000);
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(callers.submit(() -> singleFlight.execute("prompt", () -> {
+                await(release);
+                throw new AIException("Groq indisponible");
+            })));
+        }
+        waitUntil(() -> (long) singleFlight.stats().get("coalesced") == 2);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            Exception e = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(AIException.class, e.getCause());
+            assertEquals("Groq indisponible", e.getCause().getMessage());
+        }
+    }
+
+    @Test
+    void upstreamIsCancelledWhenAllWaitersGiveUp() throws Exception {
+        AISingleFlight singleFlight = new AISingleFlight(aiExecutor, 100);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        assertThrows(AIException.class, () -> singleFlight.execute("prompt", () -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "trop tard";
+        }));
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertEquals(1L, singleFlight.stats().get("cancelled"));
+        assertEquals(0, singleFlight.stats().get("inFlight"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
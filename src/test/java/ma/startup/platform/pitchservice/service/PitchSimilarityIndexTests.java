@@ -0,0 +1,89 @@
+package ma.startup.platform.pitchservice.service;
+
+import ma.startup.platform.pitchservice.dto.DuplicateStrategy;
+import ma.startup.platform.pitchservice.model.PitchType;
+import ma.startup.platform.pitchservice.repository.PitchRepository;
+import ma.startup.platform.pitchservice.repository.PitchSignatureView;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PitchSimilarityIndexTests {
+
+    private static final String PROBLEME =
+            "Les petits commerçants marocains n'acceptent pas les paiements par carte car les terminaux coûtent trop cher";
+    private static final String SOLUTION =
+            "Une application mobile qui transforme le smartphone du commerçant en terminal de paiement sans contact";
+    private static final String CIBLE = "Commerçants de proximité et artisans au Maroc";
+    private static final String AVANTAGE =
+            "Aucun matériel à acheter, commission de 1% seulement, argent disponible le jour même";
+
+    private final PitchRepository repository = mock(PitchRepository.class);
+    private final PitchSimilarityIndex index =
+            new PitchSimilarityIndex(repository, true, 0.9, DuplicateStrategy.REUSE, 100, 60);
+
+    @Test
+    void smallEditsStayAboveThresholdAndUnrelatedInputsDoNot() {
+        long base = PitchSimilarityIndex.signature(PROBLEME, SOLUTION, CIBLE, AVANTAGE);
+        long oneWord = PitchSimilarityIndex.signature(
+                PROBLEME.replace("trop cher", "beaucoup trop cher"), SOLUTION, CIBLE, AVANTAGE);
+        // Casse et accents ignorés
+        long normalized = PitchSimilarityIndex.signature(PROBLEME.toUpperCase(), SOLUTION, CIBLE,
+                AVANTAGE.replace("matériel", "materiel"));
+        long unrelated = PitchSimilarityIndex.signature("Les agriculteurs gaspillent l'eau d'irrigation",
+                "Capteurs connectés qui pilotent l'arrosage", "Agriculteurs du Souss", "30% d'eau économisée");
+
+        assertEquals(base, normalized);
+        assertTrue(PitchSimilarityIndex.similarity(Long.bitCount(base ^ oneWord)) >= 0.9);
+        assertTrue(PitchSimilarityIndex.similarity(Long.bitCount(base ^ unrelated)) < 0.8);
+    }
+
+    @Test
+    void findsNearestOfSameTypeAndTracksChanges() {
+        UUID startupId = UUID.randomUUID();
+        UUID elevator = UUID.randomUUID();
+        UUID deck = UUID.randomUUID();
+        long signature = PitchSimilarityIndex.signature(PROBLEME, SOLUTION, CIBLE, AVANTAGE);
+        when(repository.findSignatures(startupId)).thenReturn(List.of(
+                view(elevator, PitchType.ELEVATOR, signature),
+                view(deck, PitchType.DECK, signature)));
+
+        long edited = PitchSimilarityIndex.signature(PROBLEME, SOLUTION.replace("mobile", "Android"), CIBLE, AVANTAGE);
+        Optional<PitchSimilarityIndex.Match> match = index.findNearDuplicate(startupId, PitchType.ELEVATOR, edited);
+        assertEquals(elevator, match.orElseThrow().pitchId());
+        assertTrue(index.findNearDuplicate(startupId, PitchType.VALUE_PROP, edited).isEmpty());
+
+        index.remove(startupId, elevator);
+        assertTrue(index.findNearDuplicate(startupId, PitchType.ELEVATOR, edited).isEmpty());
+        UUID created = UUID.randomUUID();
+        index.add(startupId, created, PitchType.ELEVATOR, signature);
+        assertEquals(created, index.findNearDuplicate(startupId, PitchType.ELEVATOR, edited).orElseThrow().pitchId());
+
+        // Chargé une seule fois depuis la base
+        verify(repository, times(1)).findSignatures(startupId);
+    }
+
+    private static PitchSignatureView view(UUID id, PitchType type, long signature) {
+        return new PitchSignatureView() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public PitchType getType() {
+                return type;
+            }
+
+            @Override
+            public Long getInputSimhash() {
+                return signature;
+            }
+        };
+    }
+}
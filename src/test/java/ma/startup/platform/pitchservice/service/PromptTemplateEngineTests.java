@@ -0,0 +1,87 @@
+package ma.startup.platform.pitchservice.service;
+
+import ma.startup.platform.pitchservice.dto.StartupDTO;
+import ma.startup.platform.pitchservice.model.PitchTemplate;
+import ma.startup.platform.pitchservice.model.PitchType;
+import ma.startup.platform.pitchservice.repository.PitchTemplateRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PromptTemplateEngineTests {
+
+    private final PitchTemplateRepository repository = mock(PitchTemplateRepository.class);
+    private final PromptTemplateEngine engine = new PromptTemplateEngine(repository, 300, 100);
+
+    private final StartupDTO fintech = StartupDTO.builder().nom("PayMa").secteur("Fintech").build();
+
+    @Test
+    void defaultTemplateRendersLegacyPrompt() {
+        when(repository.findBySecteurAndIsActiveTrue(any())).thenReturn(List.of());
+
+        String prompt = engine.render("P", "S", "C", "A", fintech, PitchType.ELEVATOR);
+
+        assertEquals("""
+                Tu es un expert en pitchs de start-ups.
+
+                Génère un pitch professionnel EN FRANÇAIS pour:
+
+                Startup: PayMa
+                Secteur: Fintech
+                Problème: P
+                Solution: S
+                Cible: C
+                Avantage: A
+
+                Crée un elevator pitch de 120-150 mots.
+
+                Réponds UNIQUEMENT avec le pitch, sans introduction.
+                Langue: FRANÇAIS
+                """, prompt);
+    }
+
+    @Test
+    void sectorTemplatesAreCompiledOnceAndPreferredByType() {
+        when(repository.findBySecteurAndIsActiveTrue("Fintech")).thenReturn(List.of(
+                template("fintech-deck", "Deck {{startup}} / {{probleme}}", PitchType.DECK),
+                template("fintech", "Tous types : {{type}} {{ CONSIGNE }}", null)
+        ));
+
+        assertEquals("Deck PayMa / P", engine.render("P", "S", "C", "A", fintech, PitchType.DECK));
+        assertEquals("Tous types : VALUE_PROP Crée une proposition de valeur de 80-100 mots.",
+                engine.render("P", "S", "C", "A", fintech, PitchType.VALUE_PROP));
+        engine.render("P2", "S", "C", "A", fintech, PitchType.DECK);
+
+        verify(repository, times(1)).findBySecteurAndIsActiveTrue("Fintech");
+    }
+
+    @Test
+    void invalidTemplatesAreSkippedAndInvalidationReloads() {
+        when(repository.findBySecteurAndIsActiveTrue("Fintech")).thenReturn(List.of(
+                template("cassé", "Bonjour {{inconnu}}", null)));
+        when(repository.findBySecteurAndIsActiveTrue(null)).thenReturn(List.of(
+                template("global", "Global {{secteur}}", null)));
+
+        assertEquals("Global Fintech", engine.render("P", "S", "C", "A", fintech, PitchType.ELEVATOR));
+
+        when(repository.findBySecteurAndIsActiveTrue("Fintech")).thenReturn(List.of(
+                template("corrigé", "Corrigé {{cible}}", null)));
+        engine.invalidateAll();
+
+        assertEquals("Corrigé C", engine.render("P", "S", "C", "A", fintech, PitchType.ELEVATOR));
+        verify(repository, times(2)).findBySecteurAndIsActiveTrue("Fintech");
+    }
+
+    @Test
+    void unclosedSlotIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> PromptTemplate.compile("Bonjour {{startup"));
+    }
+
+    private static PitchTemplate template(String nom, String prompt, PitchType type) {
+        return PitchTemplate.builder().nom(nom).prompt(prompt).type(type).isActive(true).build();
+    }
+}
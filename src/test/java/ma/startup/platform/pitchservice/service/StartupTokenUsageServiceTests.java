@@ -0,0 +1,95 @@
+package ma.startup.platform.pitchservice.service;
+
+import ma.startup.platform.pitchservice.dto.TokenUsageDTO;
+import ma.startup.platform.pitchservice.exception.AIQuotaExceededException;
+import ma.startup.platform.pitchservice.model.PitchType;
+import ma.startup.platform.pitchservice.repository.StartupTokenUsageRepository;
+import ma.startup.platform.pitchservice.repository.StartupTokenUsageRepository.Totals;
+import ma.startup.platform.pitchservice.repository.StartupTokenUsageRepository.UsageRow;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class StartupTokenUsageServiceTests {
+
+    private final StartupTokenUsageRepository repository = mock(StartupTokenUsageRepository.class);
+    private final StartupTokenUsageService service =
+            new StartupTokenUsageService(repository, true, 1000, 5000, "UTC", 60, 100);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void usageIsAggregatedPerStartupAndTypeAndFlushedInOneBatch() {
+        UUID startup = UUID.randomUUID();
+        service.record(startup, PitchType.ELEVATOR, new TokenUsage(100, 50));
+        service.record(startup, PitchType.ELEVATOR, new TokenUsage(10, 5));
+        service.record(startup, null, new TokenUsage(7, 3));
+        service.record(null, PitchType.DECK, new TokenUsage(1000, 1000));
+
+        doThrow(new RuntimeException("base indisponible")).doNothing().when(repository).addAll(anyList());
+        service.flush();
+        service.flush();
+        service.flush();
+
+        ArgumentCaptor<List<UsageRow>> batches = ArgumentCaptor.forClass(List.class);
+        verify(repository, times(2)).addAll(batches.capture());
+        List<UsageRow> written = batches.getValue().stream()
+                .sorted(Comparator.comparing(UsageRow::pitchType))
+                .toList();
+        assertEquals(2, written.size());
+        assertEquals(new UsageRow(startup, written.get(0).day(), "ELEVATOR", 110, 55, 2), written.get(0));
+        assertEquals(new UsageRow(startup, written.get(1).day(), StartupTokenUsageService.NO_TYPE, 7, 3, 1),
+                written.get(1));
+    }
+
+    @Test
+    void quotaCountsPersistedAndPendingTokens() {
+        UUID startup = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        when(repository.totals(eq(startup), any())).thenReturn(new Totals(900, 900));
+        when(repository.totals(eq(other), any())).thenReturn(new Totals(0, 0));
+        when(repository.findSince(eq(startup), any())).thenReturn(List.of());
+
+        service.checkQuota(startup);
+        service.record(startup, PitchType.DECK, new TokenUsage(60, 40));
+
+        AIQuotaExceededException error = assertThrows(AIQuotaExceededException.class,
+                () -> service.checkQuota(startup));
+        assertTrue(error.getRetryAfterSeconds() > 0);
+        service.checkQuota(other);
+        service.checkQuota(null);
+
+        TokenUsageDTO usage = service.getUsage(startup);
+        assertEquals(100, usage.getDailyTokens());
+        assertEquals(1000, usage.getDailyQuota());
+        assertEquals(100, usage.getMonthlyTokensByType().get("DECK"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void pendingUsageIsFlushedWhenContextCloses() {
+        UUID startup = UUID.randomUUID();
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.registerBean(StartupTokenUsageService.class,
+                () -> new StartupTokenUsageService(repository, true, 1000, 5000, "UTC", 60, 100));
+        context.refresh();
+
+        context.getBean(StartupTokenUsageService.class).record(startup, PitchType.VALUE_PROP, new TokenUsage(20, 10));
+        verify(repository, never()).addAll(anyList());
+        context.close();
+
+        ArgumentCaptor<List<UsageRow>> batch = ArgumentCaptor.forClass(List.class);
+        verify(repository).addAll(batch.capture());
+        assertEquals(List.of(new UsageRow(startup, batch.getValue().get(0).day(), "VALUE_PROP", 20, 10, 1)),
+                batch.getValue());
+    }
+}
@@ -0,0 +1,82 @@
+package ma.startup.platform.pitchservice.service.impl;
+
+import ma.startup.platform.pitchservice.dto.PitchRequestDTO;
+import ma.startup.platform.pitchservice.dto.RequestContext;
+import ma.startup.platform.pitchservice.dto.StartupDTO;
+import ma.startup.platform.pitchservice.dto.UserDTO;
+import ma.startup.platform.pitchservice.model.Pitch;
+import ma.startup.platform.pitchservice.repository.PitchRepository;
+import ma.startup.platform.pitchservice.service.AIService;
+import ma.startup.platform.pitchservice.service.PitchService;
+import ma.startup.platform.pitchservice.service.RequestContextResolver;
+import ma.startup.platform.pitchservice.service.StartupPitchStatsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.UUID;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * Contexte commun aux tests de PitchServiceImpl (partagé entre les classes de test) : base H2 en mode PostgreSQL,
+ * IA et résolution d'identité simulées, une startup distincte par test
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pitchtx;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS pitch_schema",
+        "spring.datasource.username=sa",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+abstract class AbstractPitchServiceImplTests {
+
+    protected static final String TOKEN = "Bearer test";
+
+    @Autowired
+    protected PitchService pitchService;
+
+    @Autowired
+    protected PitchRepository pitchRepository;
+
+    @MockitoBean
+    protected AIService aiService;
+
+    @MockitoBean
+    protected RequestContextResolver requestContextResolver;
+
+    @MockitoSpyBean
+    protected StartupPitchStatsService statsService;
+
+    protected final UUID startupId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUpIdentity() {
+        StartupDTO startup = StartupDTO.builder().id(startupId).nom("Test").secteur("Tech").build();
+        UserDTO user = UserDTO.builder().id(UUID.randomUUID()).email("test@example.com").build();
+        when(requestContextResolver.resolve(TOKEN)).thenReturn(new RequestContext(user, startup));
+    }
+
+    protected Pitch savePitch() {
+        return pitchRepository.save(Pitch.builder()
+                .startupId(startupId)
+                .probleme("Problème")
+                .solution("Solution")
+                .cible("Cible")
+                .avantage("Avantage")
+                .pitchGenere("Pitch initial")
+                .build());
+    }
+
+    protected PitchRequestDTO request(String probleme) {
+        return PitchRequestDTO.builder()
+                .probleme(probleme)
+                .solution("Solution")
+                .cible("Cible")
+                .avantage("Avantage")
+                .build();
+    }
+}
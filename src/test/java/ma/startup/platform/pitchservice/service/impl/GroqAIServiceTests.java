@@ -0,0 +1,115 @@
+package ma.startup.platform.pitchservice.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ma.startup.platform.pitchservice.exception.AIRateLimitException;
+import ma.startup.platform.pitchservice.model.PitchType;
+import ma.startup.platform.pitchservice.service.AIConcurrencyLimiter;
+import ma.startup.platform.pitchservice.service.AIMetrics;
+import ma.startup.platform.pitchservice.service.AIModelRouter;
+import ma.startup.platform.pitchservice.service.AIResilience;
+import ma.startup.platform.pitchservice.service.AIResponseCache;
+import ma.startup.platform.pitchservice.service.AISingleFlight;
+import ma.startup.platform.pitchservice.service.PromptTemplateEngine;
+import ma.startup.platform.pitchservice.service.StartupTokenUsageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withTooManyRequests;
+
+class GroqAIServiceTests {
+
+    private static final String API_URL = "http://groq.test/chat";
+    private static final String MODEL = "llama-3.1-8b-instant";
+
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+    private final AIResponseCache responseCache = mock(AIResponseCache.class);
+    private final AISingleFlight singleFlight = mock(AISingleFlight.class);
+    private final AIResilience resilience = mock(AIResilience.class);
+    private final AIModelRouter router = mock(AIModelRouter.class);
+    private final PromptTemplateEngine promptEngine = mock(PromptTemplateEngine.class);
+    private final AIConcurrencyLimiter limiter = new AIConcurrencyLimiter(4, 1, 32, 100, 1000, 5000);
+
+    private GroqAIService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(router.select(any())).thenReturn(MODEL);
+        when(promptEngine.render(any(), any(), any(), any(), any(), any())).thenReturn("prompt");
+        when(responseCache.key(any(), any(), anyDouble(), anyInt())).thenReturn("key");
+        when(responseCache.get(any())).thenReturn(Optional.empty());
+        when(resilience.executeOnce(any())).thenAnswer(invocation -> ((Supplier<String>) invocation.getArgument(0)).get());
+
+        service = service(limiter);
+    }
+
+    @Test
+    void clientDisconnectDuringStreamDoesNotShrinkLimiter() {
+        server.expect(requestTo(API_URL)).andRespond(withSuccess(
+                "data: {\"choices\":[{\"delta\":{\"content\":\"Bonjour\"}}]}\n\ndata: [DONE]\n\n",
+                MediaType.TEXT_EVENT_STREAM));
+
+        assertThrows(RuntimeException.class, () -> service.streamPitch("p", "s", "c", "a", null,
+                PitchType.ELEVATOR, true, token -> {
+                    throw new UncheckedIOException(new IOException("Broken pipe"));
+                }));
+
+        assertEquals(4, limiter.stats().get("limit"));
+        assertEquals(0, limiter.stats().get("inFlight"));
+        assertEquals(0L, limiter.stats().get("errors"));
+        verify(router, never()).onFailure(anyString(), anyLong());
+    }
+
+    @Test
+    void localLimiterRejectionIsNotCountedAgainstModel() {
+        // File d'attente de taille nulle : chaque appel est refusé localement, sans requête vers Groq
+        GroqAIService saturated = service(new AIConcurrencyLimiter(4, 1, 32, 0, 1000, 5000));
+
+        assertThrows(AIRateLimitException.class, () -> saturated.streamPitch("p", "s", "c", "a", null,
+                PitchType.ELEVATOR, true, token -> {
+                }));
+
+        verify(router, never()).onFailure(anyString(), anyLong());
+        server.verify();
+    }
+
+    @Test
+    void upstream429IsCountedAgainstModelThenRetried() {
+        HttpHeaders retryNow = new HttpHeaders();
+        retryNow.set(HttpHeaders.RETRY_AFTER, "0");
+        server.expect(requestTo(API_URL)).andRespond(withTooManyRequests().headers(retryNow));
+        server.expect(requestTo(API_URL)).andRespond(withSuccess(
+                "data: {\"choices\":[{\"delta\":{\"content\":\"Bonjour\"}}]}\n\ndata: [DONE]\n\n",
+                MediaType.TEXT_EVENT_STREAM));
+
+        assertEquals("Bonjour", service.streamPitch("p", "s", "c", "a", null, PitchType.ELEVATOR, true, token -> {
+        }));
+
+        verify(router).onFailure(eq(MODEL), anyLong());
+        verify(router).onSuccess(eq(MODEL), anyLong());
+        server.verify();
+    }
+
+    private GroqAIService service(AIConcurrencyLimiter limiter) {
+        GroqAIService service = new GroqAIService(restTemplate, responseCache, singleFlight, limiter, resilience, router,
+                promptEngine, new AIMetrics(new SimpleMeterRegistry()), mock(StartupTokenUsageService.class));
+        ReflectionTestUtils.setField(service, "apiUrl", API_URL);
+        return service;
+    }
+}
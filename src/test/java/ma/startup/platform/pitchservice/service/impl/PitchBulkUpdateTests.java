@@ -0,0 +1,67 @@
+package ma.startup.platform.pitchservice.service.impl;
+
+import ma.startup.platform.pitchservice.dto.BulkPitchOperation;
+import ma.startup.platform.pitchservice.dto.BulkPitchRequestDTO;
+import ma.startup.platform.pitchservice.dto.BulkPitchResultDTO;
+import ma.startup.platform.pitchservice.dto.PitchStatsDTO;
+import ma.startup.platform.pitchservice.model.Pitch;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Opérations en masse (favoris, notes, suppressions) limitées aux pitchs de la startup
+ */
+class PitchBulkUpdateTests extends AbstractPitchServiceImplTests {
+
+    @Test
+    void bulkUpdateIsScopedToStartupAndKeepsStatsConsistent() {
+        Pitch first = savePitch();
+        Pitch second = savePitch();
+        Pitch third = savePitch();
+        Pitch foreign = pitchRepository.save(Pitch.builder()
+                .startupId(UUID.randomUUID())
+                .probleme("Problème")
+                .solution("Solution")
+                .cible("Cible")
+                .avantage("Avantage")
+                .pitchGenere("Pitch d'une autre startup")
+                .build());
+        List<UUID> ids = List.of(first.getId(), second.getId(), third.getId(), foreign.getId(), UUID.randomUUID());
+
+        LocalDateTime beforeBulk = LocalDateTime.now();
+        BulkPitchResultDTO favorited = pitchService.bulkUpdate(bulk(ids, BulkPitchOperation.FAVORITE, null), TOKEN);
+        assertEquals(Set.of(first.getId(), second.getId(), third.getId()), Set.copyOf(favorited.getAffectedIds()));
+        assertFalse(pitchRepository.findById(second.getId()).orElseThrow().getUpdatedAt().isBefore(beforeBulk));
+        assertFalse(pitchRepository.findById(foreign.getId()).orElseThrow().getIsFavorite());
+
+        // Déjà en favori : aucune ligne modifiée
+        assertEquals(0, pitchService.bulkUpdate(bulk(ids, BulkPitchOperation.FAVORITE, null), TOKEN).getAffected());
+
+        pitchService.ratePitch(first.getId(), 4, TOKEN);
+        BulkPitchResultDTO rated = pitchService.bulkUpdate(bulk(ids, BulkPitchOperation.RATE, 4), TOKEN);
+        assertEquals(Set.of(second.getId(), third.getId()), Set.copyOf(rated.getAffectedIds()));
+
+        BulkPitchResultDTO deleted = pitchService.bulkUpdate(
+                bulk(List.of(first.getId(), foreign.getId()), BulkPitchOperation.DELETE, null), TOKEN);
+        assertEquals(List.of(first.getId()), deleted.getAffectedIds());
+        assertTrue(pitchRepository.existsById(foreign.getId()));
+
+        pitchService.bulkUpdate(bulk(List.of(second.getId()), BulkPitchOperation.UNFAVORITE, null), TOKEN);
+
+        PitchStatsDTO stats = pitchService.getMyPitchStats(TOKEN);
+        assertEquals(2L, stats.getTotalPitchs());
+        assertEquals(1L, stats.getFavoritePitchs());
+        assertEquals(4.0, stats.getAverageRating());
+        assertEquals(pitchRepository.countByStartupId(startupId), stats.getTotalPitchs());
+    }
+
+    private BulkPitchRequestDTO bulk(List<UUID> ids, BulkPitchOperation operation, Integer rating) {
+        return BulkPitchRequestDTO.builder().ids(ids).operation(operation).rating(rating).build();
+    }
+}
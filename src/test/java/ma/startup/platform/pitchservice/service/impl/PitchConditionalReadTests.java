@@ -0,0 +1,63 @@
+package ma.startup.platform.pitchservice.service.impl;
+
+import ma.startup.platform.pitchservice.dto.PitchField;
+import ma.startup.platform.pitchservice.dto.PitchResponseDTO;
+import ma.startup.platform.pitchservice.dto.ResourceValidator;
+import ma.startup.platform.pitchservice.model.Pitch;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Lectures conditionnelles (ETag / Last-Modified) d'un pitch et de la liste des pitchs
+ */
+class PitchConditionalReadTests extends AbstractPitchServiceImplTests {
+
+    @Test
+    void conditionalReadsSkipLoadingWhenValidatorMatches() {
+        Pitch pitch = savePitch();
+        AtomicReference<ResourceValidator> seen = new AtomicReference<>();
+
+        Optional<PitchResponseDTO> fresh = pitchService.getPitchByIdIfModified(pitch.getId(), TOKEN,
+                validator -> {
+                    seen.set(validator);
+                    return false;
+                });
+        assertTrue(fresh.isPresent());
+        ResourceValidator first = seen.get();
+        assertNotNull(first.lastModified());
+
+        String etag = first.etag();
+        assertTrue(pitchService.getPitchByIdIfModified(pitch.getId(), TOKEN,
+                validator -> validator.etag().equals(etag)).isEmpty());
+
+        pitchService.toggleFavorite(pitch.getId(), TOKEN);
+        pitchService.getPitchByIdIfModified(pitch.getId(), TOKEN, validator -> {
+            seen.set(validator);
+            return false;
+        });
+        assertNotEquals(etag, seen.get().etag());
+
+        // Liste : l'ETag dépend du contenu et des champs demandés
+        pitchService.getMyPitchsIfModified(TOKEN, true, null, validator -> {
+            seen.set(validator);
+            return true;
+        });
+        String favoritesEtag = seen.get().etag();
+        assertNull(seen.get().lastModified());
+        pitchService.getMyPitchsIfModified(TOKEN, true, PitchField.parse("id"), validator -> {
+            seen.set(validator);
+            return true;
+        });
+        assertNotEquals(favoritesEtag, seen.get().etag());
+
+        pitchService.deletePitch(pitch.getId(), TOKEN);
+        Optional<List<?>> favorites = pitchService.getMyPitchsIfModified(TOKEN, true, null,
+                validator -> validator.etag().equals(favoritesEtag));
+        assertEquals(Optional.of(List.of()), favorites);
+    }
+}
@@ -0,0 +1,95 @@
+package ma.startup.platform.pitchservice.service.impl;
+
+import ma.startup.platform.pitchservice.dto.PitchImportFormat;
+import ma.startup.platform.pitchservice.dto.RequestContext;
+import ma.startup.platform.pitchservice.dto.StartupDTO;
+import ma.startup.platform.pitchservice.model.Pitch;
+import ma.startup.platform.pitchservice.model.PitchType;
+import ma.startup.platform.pitchservice.repository.PitchRepository;
+import ma.startup.platform.pitchservice.service.PitchExportService;
+import ma.startup.platform.pitchservice.service.RequestContextResolver;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Exporte un million de pitchs (environ 600 Mo s'ils étaient gardés en mémoire) avec un tas limité :
+ * exécuté par l'exécution surefire "low-heap-tests" (-Xmx64m), une implémentation qui accumule les lignes
+ * échoue par OutOfMemoryError.
+ */
+class PitchExportMemoryTests {
+
+    private static final long ROWS = 1_000_000;
+    private static final String TOKEN = "Bearer test";
+
+    @ParameterizedTest
+    @EnumSource(PitchImportFormat.class)
+    void exportsAMillionRowsInConstantMemory(PitchImportFormat format) throws IOException {
+        UUID startupId = UUID.randomUUID();
+        PitchRepository repository = mock(PitchRepository.class);
+        RequestContextResolver resolver = mock(RequestContextResolver.class);
+        when(resolver.resolve(TOKEN)).thenReturn(
+                new RequestContext(null, StartupDTO.builder().id(startupId).build()));
+        // Chaque ligne est créée à la lecture, comme par un curseur JDBC
+        when(repository.streamAll(eq(startupId), anyBoolean(), anyInt())).thenAnswer(invocation ->
+                LongStream.range(0, ROWS).mapToObj(i -> pitch(startupId, i)));
+
+        PitchExportService service = new PitchExportServiceImpl(
+                repository, resolver, mock(PlatformTransactionManager.class), 500);
+
+        CountingOutputStream counter = new CountingOutputStream();
+        long rows;
+        try (GZIPOutputStream out = new GZIPOutputStream(counter, 8192)) {
+            rows = service.open(TOKEN, format, false).writeTo(out);
+        }
+
+        assertEquals(ROWS, rows);
+        assertTrue(counter.bytes > 0);
+    }
+
+    private static Pitch pitch(UUID startupId, long i) {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 0, 0).plusSeconds(i);
+        return Pitch.builder()
+                .id(UUID.randomUUID())
+                .startupId(startupId)
+                .probleme("Problème numéro " + i + " : les commerçants n'acceptent pas la carte")
+                .solution("Solution " + i + ", un terminal de paiement sur smartphone")
+                .cible("Commerçants")
+                .avantage("Commission réduite")
+                .pitchGenere("Pitch " + i + " ".repeat(8) + "x".repeat(400))
+                .type(PitchType.values()[(int) (i % 3)])
+                .rating(i % 4 == 0 ? (int) (1 + i % 5) : null)
+                .isFavorite(i % 10 == 0)
+                .createdAt(createdAt)
+                .updatedAt(createdAt)
+                .version(0L)
+                .build();
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
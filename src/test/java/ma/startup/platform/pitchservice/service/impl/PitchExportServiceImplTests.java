@@ -0,0 +1,122 @@
+package ma.startup.platform.pitchservice.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ma.startup.platform.pitchservice.dto.PitchImportFormat;
+import ma.startup.platform.pitchservice.dto.PitchImportReportDTO;
+import ma.startup.platform.pitchservice.dto.RequestContext;
+import ma.startup.platform.pitchservice.dto.StartupDTO;
+import ma.startup.platform.pitchservice.dto.UserDTO;
+import ma.startup.platform.pitchservice.service.AIService;
+import ma.startup.platform.pitchservice.service.PitchExportService;
+import ma.startup.platform.pitchservice.service.PitchImportService;
+import ma.startup.platform.pitchservice.service.RequestContextResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pitchtx;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS pitch_schema",
+        "spring.datasource.username=sa",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "pitch.export.fetch-size=2"
+})
+class PitchExportServiceImplTests {
+
+    private static final String TOKEN = "Bearer test";
+    private static final String OTHER_TOKEN = "Bearer other";
+
+    @Autowired
+    private PitchExportService pitchExportService;
+
+    @Autowired
+    private PitchImportService pitchImportService;
+
+    @MockitoBean
+    private AIService aiService;
+
+    @MockitoBean
+    private RequestContextResolver requestContextResolver;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        UserDTO user = UserDTO.builder().id(UUID.randomUUID()).email("test@example.com").build();
+        when(requestContextResolver.resolve(TOKEN)).thenReturn(new RequestContext(user,
+                StartupDTO.builder().id(UUID.randomUUID()).nom("Test").secteur("Tech").build()));
+        when(requestContextResolver.resolve(OTHER_TOKEN)).thenReturn(new RequestContext(user,
+                StartupDTO.builder().id(UUID.randomUUID()).nom("Autre").secteur("Tech").build()));
+    }
+
+    @Test
+    void ndjsonExportStreamsEveryRowNewestFirst() throws IOException {
+        importRows(TOKEN, """
+                {"probleme":"P1","solution":"S","cible":"C","avantage":"A","pitchGenere":"Pitch 1","createdAt":"2024-01-01T10:00:00"}
+                {"probleme":"P2","solution":"S","cible":"C","avantage":"A","pitchGenere":"Pitch 2","rating":4,"isFavorite":true,"createdAt":"2024-02-01T10:00:00"}
+                {"probleme":"P3","solution":"S","cible":"C","avantage":"A","pitchGenere":"Pitch \\"3\\"\\nsur deux lignes","type":"DECK","createdAt":"2024-03-01T10:00:00"}
+                """);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = pitchExportService.open(TOKEN, PitchImportFormat.NDJSON, false).writeTo(out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(3, rows);
+        assertEquals(3, lines.size());
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals("P3", first.get("probleme").asText());
+        assertEquals("Pitch \"3\"\nsur deux lignes", first.get("pitchGenere").asText());
+        assertEquals("DECK", first.get("type").asText());
+        assertTrue(first.get("rating").isNull());
+        JsonNode second = objectMapper.readTree(lines.get(1));
+        assertEquals(4, second.get("rating").asInt());
+        assertTrue(second.get("isFavorite").asBoolean());
+
+        ByteArrayOutputStream favorites = new ByteArrayOutputStream();
+        assertEquals(1, pitchExportService.open(TOKEN, PitchImportFormat.NDJSON, true).writeTo(favorites));
+    }
+
+    @Test
+    void csvExportCanBeReimported() throws IOException {
+        importRows(TOKEN, """
+                {"probleme":"P1","solution":"S, avec virgule","cible":"C","avantage":"A","pitchGenere":"Pitch 1","rating":5}
+                {"probleme":"P2","solution":"S","cible":"C","avantage":"A","pitchGenere":"Pitch\\nmultiligne","type":"VALUE_PROP"}
+                """);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(2, pitchExportService.open(TOKEN, PitchImportFormat.CSV, false).writeTo(out));
+        assertTrue(out.toString(StandardCharsets.UTF_8).startsWith(
+                "id,type,probleme,solution,cible,avantage,pitchGenere,rating,isFavorite,createdAt,updatedAt\n"));
+
+        PitchImportReportDTO report = pitchImportService.importPitchs(
+                new ByteArrayInputStream(out.toByteArray()), PitchImportFormat.CSV, OTHER_TOKEN);
+        assertEquals(2, report.getImported(), () -> out.toString(StandardCharsets.UTF_8) + report);
+        assertEquals(0, report.getFailed());
+
+        ByteArrayOutputStream copy = new ByteArrayOutputStream();
+        pitchExportService.open(OTHER_TOKEN, PitchImportFormat.NDJSON, false).writeTo(copy);
+        assertTrue(copy.toString(StandardCharsets.UTF_8).contains("\"solution\":\"S, avec virgule\""));
+        assertTrue(copy.toString(StandardCharsets.UTF_8).contains("\"pitchGenere\":\"Pitch\\nmultiligne\""));
+    }
+
+    private void importRows(String token, String ndjson) {
+        PitchImportReportDTO report = pitchImportService.importPitchs(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), PitchImportFormat.NDJSON, token);
+        assertEquals(0, report.getFailed(), () -> report.getErrors().toString());
+    }
+}
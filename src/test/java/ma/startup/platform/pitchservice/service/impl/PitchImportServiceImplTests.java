@@ -0,0 +1,147 @@
+package ma.startup.platform.pitchservice.service.impl;
+
+import ma.startup.platform.pitchservice.dto.PitchImportFormat;
+import ma.startup.platform.pitchservice.dto.PitchImportReportDTO;
+import ma.startup.platform.pitchservice.dto.PitchStatsDTO;
+import ma.startup.platform.pitchservice.dto.RequestContext;
+import ma.startup.platform.pitchservice.dto.StartupDTO;
+import ma.startup.platform.pitchservice.dto.UserDTO;
+import ma.startup.platform.pitchservice.model.Pitch;
+import ma.startup.platform.pitchservice.repository.PitchRepository;
+import ma.startup.platform.pitchservice.service.AIService;
+import ma.startup.platform.pitchservice.service.PitchImportService;
+import ma.startup.platform.pitchservice.service.PitchService;
+import ma.startup.platform.pitchservice.service.RequestContextResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pitchtx;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS pitch_schema",
+        "spring.datasource.username=sa",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+class PitchImportServiceImplTests {
+
+    private static final String TOKEN = "Bearer test";
+
+    @Autowired
+    private PitchImportService pitchImportService;
+
+    @Autowired
+    private PitchService pitchService;
+
+    @Autowired
+    private PitchRepository pitchRepository;
+
+    @MockitoBean
+    private AIService aiService;
+
+    @MockitoBean
+    private RequestContextResolver requestContextResolver;
+
+    private final UUID startupId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        StartupDTO startup = StartupDTO.builder().id(startupId).nom("Test").secteur("Tech").build();
+        UserDTO user = UserDTO.builder().id(UUID.randomUUID()).email("test@example.com").build();
+        when(requestContextResolver.resolve(TOKEN)).thenReturn(new RequestContext(user, startup));
+    }
+
+    @Test
+    void ndjsonImportKeepsValidRowsAndReportsInvalidOnes() {
+        // Marge d'une seconde : la base peut tronquer la précision des timestamps
+        LocalDateTime beforeImport = LocalDateTime.now().minusSeconds(1);
+        String body = """
+                {"probleme":"P1","solution":"S","cible":"C","avantage":"A","pitchGenere":"Pitch 1","type":"DECK","rating":4,"isFavorite":true,"createdAt":"2024-03-01T10:15:30"}
+                {"probleme":"P2","solution":"S","cible":"C","avantage":"A","pitchGenere":"Pitch 2"}
+                {pas du json}
+
+                {"probleme":"P4","solution":"S","cible":"C","avantage":"A"}
+                {"probleme":"P5","solution":"S","cible":"C","avantage":"A","pitchGenere":"Pitch 5","rating":9}
+                {"probleme":"P6","solution":"S","cible":"C","avantage":"A","pitchGenere":"Pitch 6","type":"VALUE_PROP"}
+                """;
+
+        PitchImportReportDTO report = pitchImportService.importPitchs(stream(body), PitchImportFormat.NDJSON, TOKEN);
+
+        assertEquals(6, report.getTotalRows());
+        assertEquals(3, report.getImported());
+        assertEquals(3, report.getFailed());
+        assertEquals(List.of(3L, 5L, 6L), report.getErrors().stream().map(PitchImportReportDTO.RowError::getRow).toList());
+        assertFalse(report.isErrorsTruncated());
+
+        List<Pitch> pitchs = pitchRepository.findByStartupIdOrderByCreatedAtDesc(startupId);
+        assertEquals(3, pitchs.size());
+        Pitch first = pitchs.get(pitchs.size() - 1);
+        assertEquals("Pitch 1", first.getPitchGenere());
+        assertEquals(LocalDateTime.of(2024, 3, 1, 10, 15, 30), first.getCreatedAt());
+        assertFalse(first.getUpdatedAt().isBefore(beforeImport));
+
+        PitchStatsDTO stats = pitchService.getMyPitchStats(TOKEN);
+        assertEquals(3L, stats.getTotalPitchs());
+        assertEquals(1L, stats.getFavoritePitchs());
+        assertEquals(4.0, stats.getAverageRating());
+    }
+
+    @Test
+    void csvImportSupportsQuotedMultilineFields() {
+        String body = """
+                probleme,solution,cible,avantage,pitchGenere,type
+                P1,S,C,A,"Ligne 1, avec virgule
+                Ligne 2",ELEVATOR
+                P2,S,C,A,Pitch 2,INCONNU
+                P3,S,C,A,"Pitch \"\"cité\"\"\",DECK
+                """;
+
+        PitchImportReportDTO report = pitchImportService.importPitchs(stream(body), PitchImportFormat.CSV, TOKEN);
+
+        assertEquals(3, report.getTotalRows());
+        assertEquals(2, report.getImported());
+        assertEquals(2L, report.getErrors().get(0).getRow());
+        assertTrue(pitchRepository.findByStartupIdOrderByCreatedAtDesc(startupId).stream()
+                .anyMatch(pitch -> pitch.getPitchGenere().equals("Ligne 1, avec virgule\nLigne 2")));
+        assertTrue(pitchRepository.findByStartupIdOrderByCreatedAtDesc(startupId).stream()
+                .anyMatch(pitch -> pitch.getPitchGenere().equals("Pitch \"cité\"")));
+    }
+
+    @Test
+    void csvImportSkipsMalformedRowAndContinues() {
+        String body = """
+                probleme,solution,cible,avantage,pitchGenere
+                P1,S,C,A,Pitch 1
+                P2,S,C,A,Pitch 2,EN TROP
+                P3,S,C,A,Pitch 3
+                """;
+
+        PitchImportReportDTO report = pitchImportService.importPitchs(stream(body), PitchImportFormat.CSV, TOKEN);
+
+        assertEquals(3, report.getTotalRows());
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(2L, report.getErrors().get(0).getRow());
+        assertEquals(List.of("Pitch 1", "Pitch 3"), pitchRepository.findByStartupIdOrderByCreatedAtDesc(startupId).stream()
+                .map(Pitch::getPitchGenere)
+                .sorted()
+                .toList());
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,81 @@
+package ma.startup.platform.pitchservice.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ma.startup.platform.pitchservice.dto.PitchJobDTO;
+import ma.startup.platform.pitchservice.dto.PitchRequestDTO;
+import ma.startup.platform.pitchservice.dto.PitchResponseDTO;
+import ma.startup.platform.pitchservice.dto.RequestContext;
+import ma.startup.platform.pitchservice.dto.StartupDTO;
+import ma.startup.platform.pitchservice.dto.UserDTO;
+import ma.startup.platform.pitchservice.model.PitchJobStatus;
+import ma.startup.platform.pitchservice.service.PitchService;
+import ma.startup.platform.pitchservice.service.RequestContextResolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class PitchJobServiceImplTests {
+
+    private final PitchService pitchService = mock(PitchService.class);
+    private final RequestContextResolver resolver = mock(RequestContextResolver.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void queuedJobReusesIdentityResolvedAtSubmitAndRecordsMetrics() throws Exception {
+        executor.setCorePoolSize(1);
+        executor.initialize();
+        PitchJobServiceImpl jobService = new PitchJobServiceImpl(pitchService, resolver, executor, registry, 60, 100);
+
+        StartupDTO startup = new StartupDTO();
+        startup.setId(UUID.randomUUID());
+        RequestContext context = RequestContext.builder().user(new UserDTO()).startup(startup).build();
+        when(resolver.resolve("Bearer token")).thenReturn(context);
+        PitchResponseDTO result = PitchResponseDTO.builder().id(UUID.randomUUID()).build();
+        when(pitchService.generatePitch(any(PitchRequestDTO.class), eq(context), eq(false), isNull()))
+                .thenReturn(result);
+
+        PitchJobDTO submitted = jobService.submit(new PitchRequestDTO(), "Bearer token", false);
+        PitchJobDTO done = awaitCompletion(jobService, submitted.getJobId());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(5);
+        executor.shutdown();
+
+        assertEquals(PitchJobStatus.SUCCEEDED, done.getStatus());
+        assertEquals(result.getId(), done.getResult().getId());
+        verify(pitchService, never()).generatePitch(any(), anyString(), anyBoolean(), any());
+
+        assertEquals(1, registry.get("pitch.jobs.submitted").counter().count());
+        assertEquals(1, registry.get("pitch.jobs.wait").timer().count());
+        assertEquals(1, registry.get("pitch.jobs.run").tag("outcome", "success").timer().count());
+        assertEquals(0, registry.get("pitch.jobs.queue.depth").gauge().value());
+    }
+
+    private PitchJobDTO awaitCompletion(PitchJobServiceImpl jobService, UUID jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            PitchJobDTO job = jobService.getJob(jobId, "Bearer token");
+            if (job.getStatus() == PitchJobStatus.SUCCEEDED || job.getStatus() == PitchJobStatus.FAILED) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        fail("La tâche ne s'est pas terminée");
+        return null;
+    }
+}
@@ -0,0 +1,86 @@
+package ma.startup.platform.pitchservice.service.impl;
+
+import ma.startup.platform.pitchservice.dto.CursorPageDTO;
+import ma.startup.platform.pitchservice.dto.PitchField;
+import ma.startup.platform.pitchservice.dto.PitchListQuery;
+import ma.startup.platform.pitchservice.dto.PitchResponseDTO;
+import ma.startup.platform.pitchservice.model.Pitch;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Listings de pitchs : pagination par curseur (keyset) et champs partiels (fields=)
+ */
+class PitchListingTests extends AbstractPitchServiceImplTests {
+
+    @Test
+    void cursorPagesWalkEveryPitchOnceInOrder() {
+        Set<UUID> expected = new HashSet<>();
+        for (int i = 0; i < 5; i++) {
+            Pitch pitch = savePitch();
+            if (i % 2 == 0) {
+                pitch.setIsFavorite(true);
+                pitchRepository.save(pitch);
+            }
+            expected.add(pitch.getId());
+        }
+
+        List<UUID> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPageDTO<PitchResponseDTO> page = pitchService.getMyPitchsByCursor(TOKEN,
+                    PitchListQuery.builder().size(2).cursor(cursor).build());
+            page.getItems().forEach(item -> seen.add(item.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // Chaque pitch vu une seule fois, dans l'ordre décroissant de création
+        assertEquals(3, pages);
+        assertEquals(expected.size(), seen.size());
+        assertEquals(expected, new HashSet<>(seen));
+        List<LocalDateTime> createdAts = seen.stream()
+                .map(id -> pitchRepository.findById(id).orElseThrow().getCreatedAt())
+                .toList();
+        assertEquals(createdAts.stream().sorted(Comparator.reverseOrder()).toList(), createdAts);
+
+        CursorPageDTO<PitchResponseDTO> favorites = pitchService.getMyPitchsByCursor(TOKEN,
+                PitchListQuery.builder().size(10).favoritesOnly(true).build());
+        assertEquals(3, favorites.getSize());
+        assertFalse(favorites.isHasNext());
+        assertTrue(favorites.getItems().stream().allMatch(PitchResponseDTO::getIsFavorite));
+    }
+
+    @Test
+    void sparseFieldsetsReturnOnlyRequestedFieldsAndKeepCursorWorking() {
+        for (int i = 0; i < 3; i++) {
+            savePitch();
+        }
+        Set<PitchField> fields = PitchField.parse("type,createdAt");
+
+        List<Map<String, Object>> all = pitchService.getMyPitchsFields(TOKEN, false, fields);
+        assertEquals(3, all.size());
+        all.forEach(row -> assertEquals(Set.of("type", "createdAt"), row.keySet()));
+
+        CursorPageDTO<Map<String, Object>> first = pitchService.getMyPitchsByCursorFields(TOKEN,
+                PitchListQuery.builder().size(2).build(), PitchField.parse("pitchGenere"));
+        assertEquals(Set.of("pitchGenere"), first.getItems().get(0).keySet());
+        assertTrue(first.isHasNext());
+
+        CursorPageDTO<Map<String, Object>> second = pitchService.getMyPitchsByCursorFields(TOKEN,
+                PitchListQuery.builder().size(2).cursor(first.getNextCursor()).build(), PitchField.parse("pitchGenere"));
+        assertEquals(1, second.getSize());
+        assertFalse(second.isHasNext());
+    }
+}
@@ -0,0 +1,62 @@
+package ma.startup.platform.pitchservice.service.impl;
+
+import ma.startup.platform.pitchservice.dto.DuplicateStrategy;
+import ma.startup.platform.pitchservice.dto.PitchRequestDTO;
+import ma.startup.platform.pitchservice.dto.PitchResponseDTO;
+import ma.startup.platform.pitchservice.model.PitchType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Détection des demandes quasi identiques (SimHash) avant tout appel IA
+ */
+class PitchNearDuplicateTests extends AbstractPitchServiceImplTests {
+
+    @Test
+    void nearDuplicateRequestsReuseOrImproveExistingPitch() {
+        when(aiService.generatePitch(any(), any(), any(), any(), any(), any(), anyBoolean()))
+                .thenReturn("Pitch généré");
+        when(aiService.improvePitch(eq("Pitch généré"), anyString(), any(), eq(PitchType.ELEVATOR))).thenReturn("Pitch adapté");
+
+        PitchResponseDTO original = pitchService.generatePitch(
+                request("Les commerçants n'acceptent pas les paiements par carte car les terminaux coûtent cher"),
+                TOKEN, false);
+        assertNull(original.getDuplicateOf());
+
+        PitchRequestDTO edited = request(
+                "Les commerçants n'acceptent pas les paiements par carte car les terminaux coûtent trop cher");
+        PitchResponseDTO reused = pitchService.generatePitch(edited, TOKEN, false, DuplicateStrategy.REUSE);
+        assertEquals(original.getId(), reused.getId());
+        assertEquals(original.getId(), reused.getDuplicateOf());
+        assertTrue(reused.getSimilarity() >= 0.9);
+        assertEquals(1, pitchRepository.countByStartupId(startupId));
+
+        PitchResponseDTO improved = pitchService.generatePitch(edited, TOKEN, false, DuplicateStrategy.IMPROVE);
+        assertNotEquals(original.getId(), improved.getId());
+        assertEquals("Pitch adapté", improved.getPitchGenere());
+        assertEquals(edited.getProbleme(), improved.getProbleme());
+
+        // regenerate : génération complète même pour un doublon
+        pitchService.generatePitch(edited, TOKEN, true, DuplicateStrategy.REUSE);
+        verify(aiService, times(2)).generatePitch(any(), any(), any(), any(), any(), any(), anyBoolean());
+        assertEquals(3, pitchRepository.countByStartupId(startupId));
+        assertNotNull(pitchRepository.findById(improved.getId()).orElseThrow().getInputSimhash());
+    }
+
+    @Test
+    void testPitchesAreIndexedForNearDuplicateDetection() {
+        PitchRequestDTO request = request("Les PME perdent des heures chaque semaine à relancer leurs factures impayées");
+        PitchResponseDTO testPitch = pitchService.generateTestPitch(request, TOKEN);
+        assertNotNull(pitchRepository.findById(testPitch.getId()).orElseThrow().getInputSimhash());
+
+        PitchResponseDTO reused = pitchService.generatePitch(request, TOKEN, false, DuplicateStrategy.REUSE);
+        assertEquals(testPitch.getId(), reused.getDuplicateOf());
+        verify(aiService, never()).generatePitch(any(), any(), any(), any(), any(), any(), anyBoolean());
+    }
+}
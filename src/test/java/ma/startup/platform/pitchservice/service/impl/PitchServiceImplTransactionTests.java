@@ -0,0 +1,139 @@
+package ma.startup.platform.pitchservice.service.impl;
+
+import com.zaxxer.hikari.HikariDataSource;
+import ma.startup.platform.pitchservice.dto.PitchResponseDTO;
+import ma.startup.platform.pitchservice.exception.AIException;
+import ma.startup.platform.pitchservice.exception.PitchConflictException;
+import ma.startup.platform.pitchservice.model.Pitch;
+import ma.startup.platform.pitchservice.model.PitchType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Vérifie qu'aucune transaction ni connexion JDBC n'est retenue pendant l'appel IA,
+ * et que chaque écriture (pitch et statistiques, lot de variantes) est enregistrée en entier ou pas du tout
+ */
+class PitchServiceImplTransactionTests extends AbstractPitchServiceImplTests {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void generatePitchHoldsNoConnectionDuringAICall() {
+        AtomicInteger activeDuringCall = new AtomicInteger(-1);
+        when(aiService.generatePitch(any(), any(), any(), any(), any(), any(), anyBoolean()))
+                .thenAnswer(invocation -> {
+                    assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+                    activeDuringCall.set(activeConnections());
+                    return "Pitch généré";
+                });
+
+        PitchResponseDTO response = pitchService.generatePitch(request("Problème"), TOKEN, false);
+
+        assertEquals(0, activeDuringCall.get());
+        assertNotNull(response.getId());
+        assertTrue(pitchRepository.existsByIdAndStartupId(response.getId(), startupId));
+    }
+
+    @Test
+    void testPitchIsNotSavedWhenStatsUpdateFails() {
+        doThrow(new IllegalStateException("stats")).when(statsService).onCreated(any(Pitch.class));
+
+        assertThrows(IllegalStateException.class, () -> pitchService.generateTestPitch(request("Problème"), TOKEN));
+
+        assertEquals(0, pitchRepository.countByStartupId(startupId));
+    }
+
+    @Test
+    void updatePitchHoldsNoConnectionDuringAICall() {
+        Pitch existing = savePitch();
+        AtomicInteger activeDuringCall = new AtomicInteger(-1);
+        when(aiService.generatePitch(any(), any(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+                    activeDuringCall.set(activeConnections());
+                    return "Pitch régénéré";
+                });
+
+        PitchResponseDTO response = pitchService.updatePitch(existing.getId(), request("Nouveau problème"), TOKEN);
+
+        assertEquals(0, activeDuringCall.get());
+        assertEquals("Pitch régénéré", response.getPitchGenere());
+        assertEquals("Nouveau problème", response.getProbleme());
+    }
+
+    @Test
+    void updatePitchFailsWhenPitchChangedDuringAICall() {
+        Pitch existing = savePitch();
+        when(aiService.generatePitch(any(), any(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    Pitch concurrent = pitchRepository.findById(existing.getId()).orElseThrow();
+                    concurrent.setIsFavorite(true);
+                    pitchRepository.save(concurrent);
+                    return "Pitch régénéré";
+                });
+
+        assertThrows(PitchConflictException.class,
+                () -> pitchService.updatePitch(existing.getId(), request("Nouveau problème"), TOKEN));
+        assertEquals("Pitch initial", pitchRepository.findById(existing.getId()).orElseThrow().getPitchGenere());
+    }
+
+    @Test
+    void variantsAreGeneratedConcurrentlyAndSavedTogether() {
+        // Chaque génération attend que les trois soient en cours : échoue si elles sont séquentielles
+        CountDownLatch allStarted = new CountDownLatch(3);
+        when(aiService.generatePitch(any(), any(), any(), any(), any(), any(), anyBoolean()))
+                .thenAnswer(invocation -> {
+                    allStarted.countDown();
+                    assertTrue(allStarted.await(5, TimeUnit.SECONDS));
+                    return "Pitch " + invocation.getArgument(5);
+                });
+
+        List<PitchResponseDTO> variants = pitchService.generatePitchVariants(
+                request("Problème"), EnumSet.allOf(PitchType.class), TOKEN, false);
+
+        assertEquals(List.of(PitchType.ELEVATOR, PitchType.DECK, PitchType.VALUE_PROP),
+                variants.stream().map(PitchResponseDTO::getType).toList());
+        variants.forEach(variant -> {
+            assertEquals("Pitch " + variant.getType(), variant.getPitchGenere());
+            assertTrue(pitchRepository.existsByIdAndStartupId(variant.getId(), startupId));
+        });
+        verify(requestContextResolver, times(1)).resolve(TOKEN);
+    }
+
+    @Test
+    void noVariantIsSavedWhenOneGenerationFails() {
+        long before = pitchRepository.countByStartupId(startupId);
+        when(aiService.generatePitch(any(), any(), any(), any(), any(), any(), anyBoolean()))
+                .thenAnswer(invocation -> {
+                    if (invocation.getArgument(5) == PitchType.DECK) {
+                        throw new AIException("Erreur génération Groq");
+                    }
+                    return "Pitch";
+                });
+
+        assertThrows(AIException.class, () -> pitchService.generatePitchVariants(
+                request("Problème"), EnumSet.allOf(PitchType.class), TOKEN, false));
+        assertEquals(before, pitchRepository.countByStartupId(startupId));
+    }
+
+    private int activeConnections() {
+        return ((HikariDataSource) dataSource).getHikariPoolMXBean().getActiveConnections();
+    }
+
+}
@@ -0,0 +1,49 @@
+package ma.startup.platform.pitchservice.service.impl;
+
+import ma.startup.platform.pitchservice.dto.PitchResponseDTO;
+import ma.startup.platform.pitchservice.dto.PitchStatsDTO;
+import ma.startup.platform.pitchservice.model.PitchType;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.when;
+
+/**
+ * Statistiques par startup maintenues à chaque écriture (startup_pitch_stats)
+ */
+class PitchStatsTests extends AbstractPitchServiceImplTests {
+
+    @Test
+    void statsAreSeededFromExistingPitchsThenMaintainedOnEachWrite() {
+        savePitch();
+        when(aiService.generatePitch(any(), any(), any(), any(), any(), any(), anyBoolean()))
+                .thenReturn("Pitch généré");
+
+        // Première écriture : la ligne est initialisée depuis les pitchs existants, nouveau pitch inclus
+        PitchResponseDTO created = pitchService.generatePitch(request("Problème"), TOKEN, false);
+        pitchService.toggleFavorite(created.getId(), TOKEN);
+        pitchService.ratePitch(created.getId(), 4, TOKEN);
+        pitchService.ratePitch(created.getId(), 2, TOKEN);
+        pitchService.generatePitchVariants(request("Problème"), EnumSet.of(PitchType.DECK), TOKEN, false);
+
+        PitchStatsDTO stats = pitchService.getMyPitchStats(TOKEN);
+        assertEquals(3L, stats.getTotalPitchs());
+        assertEquals(1L, stats.getFavoritePitchs());
+        assertEquals(2.0, stats.getAverageRating());
+        assertEquals(Map.of("ELEVATOR", 2L, "DECK", 1L), stats.getPitchsByType());
+
+        pitchService.deletePitch(created.getId(), TOKEN);
+
+        stats = pitchService.getMyPitchStats(TOKEN);
+        assertEquals(2L, stats.getTotalPitchs());
+        assertEquals(0L, stats.getFavoritePitchs());
+        assertEquals(0.0, stats.getAverageRating());
+        assertEquals(Map.of("ELEVATOR", 1L, "DECK", 1L), stats.getPitchsByType());
+        assertEquals(pitchRepository.countByStartupId(startupId), stats.getTotalPitchs());
+    }
+}